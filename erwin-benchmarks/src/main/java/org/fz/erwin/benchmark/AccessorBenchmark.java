@@ -0,0 +1,153 @@
+package org.fz.erwin.benchmark;
+
+import org.fz.erwin.benchmark.Beans.Bean;
+import org.fz.erwin.lambda.LambdaMetas;
+import org.fz.erwin.lambda.MethodInvoker;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * single property read and write: direct call vs reflection vs method handle vs metafactory vs varhandle vs asm
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+    private static final MethodHandle GET_AGE;
+
+    static {
+        try {
+            GET_AGE = MethodHandles.lookup().findVirtual(Bean.class, "getAge", methodType(int.class));
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Bean                      bean;
+    private int                       value;
+    private Method                    reflectGetter;
+    private Method                    reflectSetter;
+    private MethodHandle              handle;
+    private Function<Bean, Integer>   lambdaGetter;
+    private BiConsumer<Bean, Integer> lambdaSetter;
+    private ToIntFunction<Bean>       intGetter;
+    private ObjIntConsumer<Bean>      intSetter;
+    private Function<Bean, Object>    fieldGetter;
+    private MethodInvoker             invoker;
+
+    @Setup
+    public void setup() throws Exception {
+        bean = new Bean();
+        bean.setAge(18);
+        value = 20;
+
+        reflectGetter = Bean.class.getMethod("getAge");
+        reflectSetter = Bean.class.getMethod("setAge", int.class);
+        handle        = GET_AGE;
+        lambdaGetter  = LambdaMetas.lambdaGetter(Bean.class, int.class, "getAge");
+        lambdaSetter  = LambdaMetas.lambdaSetter(Bean.class, int.class, "setAge");
+        intGetter     = LambdaMetas.lambdaIntGetter(Bean.class, "getAge");
+        intSetter     = LambdaMetas.lambdaIntSetter(Bean.class, "setAge");
+        fieldGetter   = LambdaMetas.fieldGetter(Bean.class.getDeclaredField("age"));
+        invoker       = MethodInvoker.of(reflectGetter);
+    }
+
+    @Benchmark
+    public int direct() {
+        return bean.getAge();
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return reflectGetter.invoke(bean);
+    }
+
+    @Benchmark
+    public int methodHandleConstant() throws Throwable {
+        return (int) GET_AGE.invokeExact(bean);
+    }
+
+    @Benchmark
+    public int methodHandleField() throws Throwable {
+        return (int) handle.invokeExact(bean);
+    }
+
+    @Benchmark
+    public Object lambdaGetter() {
+        return lambdaGetter.apply(bean);
+    }
+
+    @Benchmark
+    public int lambdaIntGetter() {
+        return intGetter.applyAsInt(bean);
+    }
+
+    @Benchmark
+    public Object varHandleGetter() {
+        return fieldGetter.apply(bean);
+    }
+
+    @Benchmark
+    public Object asmInvoker() {
+        return invoker.invoke(bean);
+    }
+
+    @Benchmark
+    public void directSet() {
+        bean.setAge(value);
+    }
+
+    @Benchmark
+    public void reflectionSet() throws Exception {
+        reflectSetter.invoke(bean, value);
+    }
+
+    @Benchmark
+    public void lambdaSetter() {
+        lambdaSetter.accept(bean, value);
+    }
+
+    @Benchmark
+    public void lambdaIntSetter() {
+        intSetter.accept(bean, value);
+    }
+
+    /**
+     * what a caller pays for asking LambdaMetas again instead of keeping the instance
+     */
+    @Benchmark
+    public Object cachedLookup() {
+        return LambdaMetas.lambdaGetter(Bean.class, int.class, "getAge");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object lambdaGetterThreaded() {
+        return lambdaGetter.apply(bean);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object cachedLookupThreaded() {
+        return LambdaMetas.lambdaGetter(Bean.class, int.class, "getAge");
+    }
+}
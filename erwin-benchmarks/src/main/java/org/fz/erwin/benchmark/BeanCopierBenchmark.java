@@ -0,0 +1,77 @@
+package org.fz.erwin.benchmark;
+
+import cn.hutool.core.bean.BeanUtil;
+import org.fz.erwin.benchmark.Beans.Bean;
+import org.fz.erwin.benchmark.Beans.BeanDto;
+import org.fz.erwin.lambda.BeanCopier;
+import org.fz.erwin.lambda.BeanMeta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * copying a dto into a bean: hand written vs generated copier vs BeanMeta lambdas vs hutool
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopierBenchmark {
+
+    private BeanDto                     dto;
+    private BeanCopier<BeanDto, Bean>   copier;
+    private BeanMeta<BeanDto>           source;
+    private BeanMeta<Bean>              target;
+
+    @Setup
+    public void setup() {
+        dto = new BeanDto();
+        dto.setName("erwin");
+        dto.setAge(18);
+        dto.setId(42L);
+        dto.setActive(true);
+
+        copier = BeanCopier.of(BeanDto.class, Bean.class);
+        source = BeanMeta.of(BeanDto.class);
+        target = BeanMeta.of(Bean.class);
+    }
+
+    @Benchmark
+    public Bean handWritten() {
+        Bean bean = new Bean();
+        bean.setName(dto.getName());
+        bean.setAge(dto.getAge());
+        bean.setId(dto.getId());
+        bean.setActive(dto.isActive());
+        return bean;
+    }
+
+    @Benchmark
+    public Bean beanCopier() {
+        Bean bean = new Bean();
+        copier.copy(dto, bean);
+        return bean;
+    }
+
+    @Benchmark
+    public Bean beanMeta() {
+        Bean bean = new Bean();
+        for (int i = 0; i < source.size(); i++) {
+            target.set(bean, target.ordinal(source.property(i).name()), source.get(dto, i));
+        }
+        return bean;
+    }
+
+    @Benchmark
+    public Bean hutool() {
+        Bean bean = new Bean();
+        BeanUtil.copyProperties(dto, bean);
+        return bean;
+    }
+}
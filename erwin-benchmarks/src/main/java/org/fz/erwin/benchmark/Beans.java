@@ -0,0 +1,67 @@
+package org.fz.erwin.benchmark;
+
+/**
+ * beans used by the benchmarks, A to D only exist to make call sites polymorphic
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+public final class Beans {
+
+    private Beans() {}
+
+    public static class Bean {
+        private String  name;
+        private int     age;
+        private Long    id;
+        private boolean active;
+
+        public String getName()                  { return name; }
+
+        public void setName(String name)         { this.name = name; }
+
+        public int getAge()                      { return age; }
+
+        public void setAge(int age)              { this.age = age; }
+
+        public Long getId()                      { return id; }
+
+        public void setId(Long id)               { this.id = id; }
+
+        public boolean isActive()                { return active; }
+
+        public void setActive(boolean active)    { this.active = active; }
+    }
+
+    public static class BeanDto {
+        private String  name;
+        private int     age;
+        private Long    id;
+        private boolean active;
+
+        public String getName()                  { return name; }
+
+        public void setName(String name)         { this.name = name; }
+
+        public int getAge()                      { return age; }
+
+        public void setAge(int age)              { this.age = age; }
+
+        public Long getId()                      { return id; }
+
+        public void setId(Long id)               { this.id = id; }
+
+        public boolean isActive()                { return active; }
+
+        public void setActive(boolean active)    { this.active = active; }
+    }
+
+    public static class A { public String getName() { return "a"; } }
+
+    public static class B { public String getName() { return "b"; } }
+
+    public static class C { public String getName() { return "c"; } }
+
+    public static class D { public String getName() { return "d"; } }
+}
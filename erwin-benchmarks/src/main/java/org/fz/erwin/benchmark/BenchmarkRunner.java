@@ -0,0 +1,32 @@
+package org.fz.erwin.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the usual JMH command line options, but writes the results as json to
+ * jmh-result.json unless -rf / -rff say otherwise, so the results of two releases can be compared
+ * <p>
+ * Example: java -jar target/benchmarks.jar AccessorBenchmark -rff erwin-1.2.4.json
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions    commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options     = new OptionsBuilder().parent(commandLine);
+
+        if (!commandLine.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        if (!commandLine.getResult().hasValue())       options.result("jmh-result.json");
+
+        new Runner(options.build()).run();
+    }
+}
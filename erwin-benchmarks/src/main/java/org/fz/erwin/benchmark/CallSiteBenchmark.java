@@ -0,0 +1,64 @@
+package org.fz.erwin.benchmark;
+
+import org.fz.erwin.lambda.LambdaMetas;
+import org.fz.erwin.lambda.MethodInvoker;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * the same call site fed with 1 (monomorphic), 2 (bimorphic) or 4 (megamorphic) receiver classes
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("unchecked")
+public class CallSiteBenchmark {
+
+    private static final int       SIZE    = 16;
+    private static final Class<?>[] CLASSES = {Beans.A.class, Beans.B.class, Beans.C.class, Beans.D.class};
+
+    @Param({"1", "2", "4"})
+    private int types;
+
+    private final Object[]                   beans   = new Object[SIZE];
+    private final Method[]                   methods = new Method[SIZE];
+    private final Function<Object, Object>[] getters = new Function[SIZE];
+    private final MethodInvoker[]            invokers = new MethodInvoker[SIZE];
+
+    @Setup
+    public void setup() throws Exception {
+        for (int i = 0; i < SIZE; i++) {
+            Class<?> type = CLASSES[i % types];
+            beans[i]    = type.getConstructor().newInstance();
+            methods[i]  = type.getMethod("getName");
+            getters[i]  = (Function<Object, Object>) (Function<?, ?>) LambdaMetas.lambdaGetter(type, String.class, "getName");
+            invokers[i] = MethodInvoker.of(methods[i]);
+        }
+    }
+
+    @Benchmark
+    public void reflection(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < SIZE; i++) blackhole.consume(methods[i].invoke(beans[i]));
+    }
+
+    @Benchmark
+    public void lambdaGetter(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) blackhole.consume(getters[i].apply(beans[i]));
+    }
+
+    @Benchmark
+    public void asmInvoker(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) blackhole.consume(invokers[i].invoke(beans[i]));
+    }
+}
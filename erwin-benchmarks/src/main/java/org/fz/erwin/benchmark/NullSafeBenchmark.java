@@ -0,0 +1,53 @@
+package org.fz.erwin.benchmark;
+
+import org.fz.erwin.benchmark.Beans.Bean;
+import org.fz.erwin.lang.NullSafe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NullSafe vs explicit null checks, on the non-null path and on the path where the chain hits null
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NullSafeBenchmark {
+
+    private Bean present;
+    private Bean absent;
+
+    @Setup
+    public void setup() {
+        present = new Bean();
+        present.setName("erwin");
+        absent = new Bean();
+    }
+
+    @Benchmark
+    public int explicitCheckPresent() {
+        return present != null && present.getName() != null ? present.getName().length() : -1;
+    }
+
+    @Benchmark
+    public int explicitCheckAbsent() {
+        return absent != null && absent.getName() != null ? absent.getName().length() : -1;
+    }
+
+    @Benchmark
+    public int nullDefaultPresent() {
+        return NullSafe.nullDefault(() -> present.getName().length(), -1);
+    }
+
+    @Benchmark
+    public int nullDefaultAbsent() {
+        return NullSafe.nullDefault(() -> absent.getName().length(), -1);
+    }
+}
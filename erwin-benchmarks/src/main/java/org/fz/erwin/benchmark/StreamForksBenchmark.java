@@ -0,0 +1,106 @@
+package org.fz.erwin.benchmark;
+
+import org.fz.erwin.stream.LongStreamForks;
+import org.fz.erwin.stream.StreamForks;
+import org.fz.erwin.stream.StreamForks.Backpressure;
+import org.fz.erwin.stream.StreamForks.ForkResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * three aggregations over one list: one pass each vs one forked pass
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamForksBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private List<Long> source;
+    private long[]     values;
+
+    @Setup
+    public void setup() {
+        source = LongStream.range(0, size).boxed().toList();
+        values = LongStream.range(0, size).toArray();
+    }
+
+    @Benchmark
+    public void separatePasses(Blackhole blackhole) {
+        blackhole.consume(source.stream().count());
+        blackhole.consume(source.stream().mapToLong(Long::longValue).sum());
+        blackhole.consume(source.stream().max(Comparator.naturalOrder()));
+    }
+
+    @Benchmark
+    public void streamForks(Blackhole blackhole) {
+        consume(blackhole, forks().done());
+    }
+
+    @Benchmark
+    public void streamForksBounded(Blackhole blackhole) {
+        consume(blackhole, forks().capacity(1024, Backpressure.BLOCK).done());
+    }
+
+    @Benchmark
+    public void streamForksBatched(Blackhole blackhole) {
+        consume(blackhole, forks().batch(256).done());
+    }
+
+    @Benchmark
+    public void streamForksParallel(Blackhole blackhole) {
+        consume(blackhole, forks().batch(256).parallel().done());
+    }
+
+    @Benchmark
+    public void streamForksRingBuffer(Blackhole blackhole) {
+        consume(blackhole, forks().ringBuffer(4096).done());
+    }
+
+    @Benchmark
+    public void streamForksCollectors(Blackhole blackhole) {
+        consume(blackhole, StreamForks.of(source)
+                                      .fork("count", Collectors.counting())
+                                      .fork("sum", Collectors.summingLong(Long::longValue))
+                                      .fork("max", Collectors.maxBy(Comparator.<Long>naturalOrder()))
+                                      .done());
+    }
+
+    @Benchmark
+    public void longStreamForks(Blackhole blackhole) {
+        consume(blackhole, LongStreamForks.of(values)
+                                          .fork("count", LongStream::count)
+                                          .fork("sum", LongStream::sum)
+                                          .fork("max", LongStream::max)
+                                          .done());
+    }
+
+    private StreamForks<Long> forks() {
+        return StreamForks.of(source)
+                          .fork("count", Stream::count)
+                          .fork("sum", s -> s.mapToLong(Long::longValue).sum())
+                          .fork("max", s -> s.max(Comparator.naturalOrder()));
+    }
+
+    private static void consume(Blackhole blackhole, ForkResult result) {
+        blackhole.consume((Object) result.get("count"));
+        blackhole.consume((Object) result.get("sum"));
+        blackhole.consume((Object) result.get("max"));
+    }
+}
@@ -0,0 +1,77 @@
+package org.fz.erwin.benchmark;
+
+import org.fz.erwin.lambda.Try;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Try wrappers on the success path and on the failure path, where every call throws, in every wrap mode
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/8 10:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TryBenchmark {
+
+    private final Function<String, Integer> parse = Try.apply(TryBenchmark::parse);
+
+    @Param({"FULL", "STACKLESS", "SNEAKY"})
+    private Try.WrapMode mode;
+
+    private String valid;
+    private String invalid;
+
+    @Setup
+    public void setup() {
+        Try.wrapMode(mode);
+        valid   = "12345";
+        invalid = "x12345";
+    }
+
+    @Benchmark
+    public int directSuccess() throws Exception {
+        return parse(valid);
+    }
+
+    @Benchmark
+    public int trySuccess() {
+        return parse.apply(valid);
+    }
+
+    @Benchmark
+    public int directFailure() {
+        try {
+            return parse(invalid);
+        }
+        catch (Exception e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int tryFailure() {
+        try {
+            return parse.apply(invalid);
+        }
+        // a LambdasException, or the ParseException itself in SNEAKY mode
+        catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * throws a checked exception like the parsers Try is meant for
+     */
+    private static int parse(String text) throws Exception {
+        if (text.isEmpty() || !Character.isDigit(text.charAt(0))) throw new java.text.ParseException(text, 0);
+        return Integer.parseInt(text);
+    }
+}
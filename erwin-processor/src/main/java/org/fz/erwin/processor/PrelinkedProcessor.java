@@ -0,0 +1,224 @@
+package org.fz.erwin.processor;
+
+import org.fz.erwin.lambda.AccessorBundle;
+import org.fz.erwin.lambda.Prelinked;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates an {@link AccessorBundle} for every {@link Prelinked} class. Each accessor is a small named class calling
+ * the getter, setter or constructor directly, loaded only when it is first asked for
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/6 10:30
+ */
+@SupportedAnnotationTypes("org.fz.erwin.lambda.Prelinked")
+public class PrelinkedProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Prelinked.class))) {
+            if (!check(type)) continue;
+
+            try {
+                generate(type);
+            }
+            catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "can not generate accessor bundle: " + e.getMessage(), type);
+            }
+        }
+        return true;
+    }
+
+    private boolean check(TypeElement type) {
+        String error = null;
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.RECORD)
+            error = "@Prelinked only supports classes and records";
+        else if (type.getModifiers().contains(Modifier.PRIVATE))
+            error = "@Prelinked class can not be private";
+        else if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+            error = "@Prelinked nested class must be static";
+        else if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+            error = "@Prelinked class must be a top level or a static nested class";
+
+        if (error != null) processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, error, type);
+        return error == null;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName  = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String bundleName  = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + AccessorBundle.SUFFIX;
+        String beanType    = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        Map<String, ExecutableElement> getters    = new TreeMap<>();
+        Map<String, ExecutableElement> setters    = new TreeMap<>();
+        Set<String>                    overloaded = new HashSet<>();
+        Set<String>                    components = new HashSet<>();
+        for (RecordComponentElement component : type.getRecordComponents()) components.add(component.getSimpleName().toString());
+
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!accessible(type, method)) continue;
+
+            String name = method.getSimpleName().toString();
+            if (isGetter(method, name, components)) {
+                getters.put(name, method);
+            }
+            else if (isSetter(method, name)) {
+                if (setters.put(name, method) != null) overloaded.add(name);
+            }
+        }
+        // a setter is looked up by name only, overloaded setters are left to the runtime
+        overloaded.forEach(setters::remove);
+
+        boolean constructor = !type.getModifiers().contains(Modifier.ABSTRACT)
+                              && ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                                              .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+
+        StringBuilder source = new StringBuilder(1024);
+        if (!packageName.isEmpty()) source.append("package ").append(packageName).append(";\n\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(PrelinkedProcessor.class.getName()).append("\")\n")
+              .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+              .append("public final class ").append(bundleName).append(" implements ").append(AccessorBundle.class.getName()).append("<").append(beanType).append("> {\n\n");
+
+        source.append("    @Override\n")
+              .append("    public java.util.function.Supplier<").append(beanType).append("> constructor() {\n")
+              .append("        return ").append(constructor ? "Constructor.INSTANCE" : "null").append(";\n")
+              .append("    }\n\n");
+
+        appendLookup(source, "getter", "java.util.function.Function<" + beanType + ", ?>", "Getter", getters.keySet());
+        appendLookup(source, "setter", "java.util.function.BiConsumer<" + beanType + ", ?>", "Setter", setters.keySet());
+
+        Map<String, String> getterTypes = new TreeMap<>();
+        Map<String, String> setterTypes = new TreeMap<>();
+        getters.forEach((name, getter) -> getterTypes.put(name, classLiteral(getter.getReturnType())));
+        setters.forEach((name, setter) -> setterTypes.put(name, classLiteral(setter.getParameters().get(0).asType())));
+        appendTypes(source, "getterType", getterTypes);
+        appendTypes(source, "setterType", setterTypes);
+
+        if (constructor) {
+            source.append("    private static final class Constructor implements java.util.function.Supplier<").append(beanType).append("> {\n")
+                  .append("        static final Constructor INSTANCE = new Constructor();\n\n")
+                  .append("        @Override\n")
+                  .append("        public ").append(beanType).append(" get() {\n")
+                  .append("            return new ").append(beanType).append("();\n")
+                  .append("        }\n")
+                  .append("    }\n\n");
+        }
+
+        int index = 0;
+        for (ExecutableElement getter : getters.values()) {
+            source.append("    private static final class Getter").append(index).append(" implements java.util.function.Function<").append(beanType).append(", Object> {\n")
+                  .append("        static final Getter").append(index).append(" INSTANCE = new Getter").append(index).append("();\n\n")
+                  .append("        @Override\n")
+                  .append("        public Object apply(").append(beanType).append(" bean) {\n")
+                  .append("            return bean.").append(getter.getSimpleName()).append("();\n")
+                  .append("        }\n")
+                  .append("    }\n\n");
+            index++;
+        }
+
+        index = 0;
+        for (ExecutableElement setter : setters.values()) {
+            source.append("    private static final class Setter").append(index).append(" implements java.util.function.BiConsumer<").append(beanType).append(", Object> {\n")
+                  .append("        static final Setter").append(index).append(" INSTANCE = new Setter").append(index).append("();\n\n")
+                  .append("        @Override\n")
+                  .append("        public void accept(").append(beanType).append(" bean, Object value) {\n")
+                  .append("            bean.").append(setter.getSimpleName()).append("((").append(castType(setter.getParameters().get(0).asType())).append(") value);\n")
+                  .append("        }\n")
+                  .append("    }\n\n");
+            index++;
+        }
+        source.setLength(source.length() - 1);
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? bundleName : packageName + "." + bundleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static void appendLookup(StringBuilder source, String method, String returnType, String accessor, Collection<String> names) {
+        source.append("    @Override\n")
+              .append("    public ").append(returnType).append(" ").append(method).append("(String methodName) {\n")
+              .append("        switch (methodName) {\n");
+        int index = 0;
+        for (String name : names) {
+            source.append("            case \"").append(name).append("\": return ").append(accessor).append(index++).append(".INSTANCE;\n");
+        }
+        source.append("            default: return null;\n")
+              .append("        }\n")
+              .append("    }\n\n");
+    }
+
+    private static void appendTypes(StringBuilder source, String method, Map<String, String> types) {
+        source.append("    @Override\n")
+              .append("    public Class<?> ").append(method).append("(String methodName) {\n")
+              .append("        switch (methodName) {\n");
+        types.forEach((name, type) -> source.append("            case \"").append(name).append("\": return ").append(type).append(";\n"));
+        source.append("            default: return null;\n")
+              .append("        }\n")
+              .append("    }\n\n");
+    }
+
+    /**
+     * the erased type as the runtime looks the method up, generic methods of a super class return the erasure of
+     * their type variable
+     */
+    private String classLiteral(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString() + ".class";
+    }
+
+    /**
+     * the generated class lives in the package of the type, so public members and package members of the type are
+     * reachable
+     */
+    private boolean accessible(TypeElement type, ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) return false;
+
+        TypeElement owner = (TypeElement) method.getEnclosingElement();
+        if (owner.getQualifiedName().contentEquals(Object.class.getName())) return false;
+        if (modifiers.contains(Modifier.PUBLIC)) return true;
+
+        return processingEnv.getElementUtils().getPackageOf(owner).equals(processingEnv.getElementUtils().getPackageOf(type));
+    }
+
+    private static boolean isGetter(ExecutableElement method, String name, Set<String> components) {
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) return false;
+
+        return components.contains(name)
+               || name.length() > 3 && name.startsWith("get")
+               || name.length() > 2 && name.startsWith("is") && method.getReturnType().getKind() == TypeKind.BOOLEAN;
+    }
+
+    private static boolean isSetter(ExecutableElement method, String name) {
+        return method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID && name.length() > 3 && name.startsWith("set");
+    }
+
+    /**
+     * primitives are cast to their wrapper and unboxed by the compiler
+     */
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+}
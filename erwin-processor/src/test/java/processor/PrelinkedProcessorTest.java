@@ -0,0 +1,99 @@
+package processor;
+
+import org.fz.erwin.lambda.LambdaMetas;
+import org.fz.erwin.processor.PrelinkedProcessor;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * compiles a {@link org.fz.erwin.lambda.Prelinked} bean with the processor, then asks for its accessors with the right
+ * and with wrong types
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/15 10:10
+ */
+public class PrelinkedProcessorTest {
+
+    private static final String BEAN = """
+            package sample;
+
+            @org.fz.erwin.lambda.Prelinked
+            public class Bean {
+                private int    age;
+                private String name;
+
+                public int getAge() { return age; }
+
+                public void setAge(int age) { this.age = age; }
+
+                public String getName() { return name; }
+
+                public void setName(String name) { this.name = name; }
+            }
+            """;
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        Path classes = Files.createTempDirectory("prelinked");
+        compile(classes);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, PrelinkedProcessorTest.class.getClassLoader())) {
+            Class<Object> bean     = (Class<Object>) loader.loadClass("sample.Bean");
+            Object        instance = bean.getConstructor().newInstance();
+
+            BiConsumer<Object, Integer> setAge = LambdaMetas.lambdaSetter(bean, int.class, "setAge");
+            Function<Object, Integer>   getAge = LambdaMetas.lambdaGetter(bean, int.class, "getAge");
+            setAge.accept(instance, 42);
+            check(getAge.apply(instance) == 42, "getAge returned " + getAge.apply(instance));
+            check(getAge.getClass().getName().contains("$$Accessors"), "getAge is not prelinked: " + getAge.getClass());
+
+            // the types do not match the methods, the bundle is skipped and the metafactory rejects them
+            expectRejected(() -> LambdaMetas.lambdaGetter(bean, long.class, "getAge"), "getter with long for int getAge()");
+            expectRejected(() -> LambdaMetas.lambdaSetter(bean, Object.class, "setName"), "setter with Object for setName(String)");
+
+            System.out.println("prelinked accessors checked");
+        }
+    }
+
+    private static void compile(Path classes) {
+        JavaCompiler   compiler = ToolProvider.getSystemJavaCompiler();
+        JavaFileObject source   = new SimpleJavaFileObject(URI.create("string:///sample/Bean.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return BEAN;
+            }
+        };
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                                                             List.of("-d", classes.toString(), "-classpath", System.getProperty("java.class.path")),
+                                                             null, List.of(source));
+        task.setProcessors(List.of(new PrelinkedProcessor()));
+        check(task.call(), "compilation failed");
+    }
+
+    private static void expectRejected(Runnable lookup, String what) {
+        try {
+            lookup.run();
+        }
+        catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new IllegalStateException(what + " was accepted");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,47 @@
+package org.fz.erwin.lambda;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Accessors of one class compiled ahead of time, implemented by the classes erwin-processor generates for
+ * {@link Prelinked} types. The implementation of type a.b.Foo is named a.b.Foo$$Accessors
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/6 10:30
+ */
+public interface AccessorBundle<T> {
+
+    String SUFFIX = "$$Accessors";
+
+    /**
+     * @return the no-arg constructor, null if the class has none
+     */
+    Supplier<T> constructor();
+
+    /**
+     * @return the getter calling the method, null if the method is not a known getter
+     */
+    Function<T, ?> getter(String methodName);
+
+    /**
+     * @return the setter calling the method, null if the method is not a known setter
+     */
+    BiConsumer<T, ?> setter(String methodName);
+
+    /**
+     * @return the erased return type of the getter, null if unknown, the getter is then not used
+     */
+    default Class<?> getterType(String methodName) {
+        return null;
+    }
+
+    /**
+     * @return the erased parameter type of the setter, null if unknown, the setter is then not used
+     */
+    default Class<?> setterType(String methodName) {
+        return null;
+    }
+}
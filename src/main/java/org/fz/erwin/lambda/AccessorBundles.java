@@ -0,0 +1,69 @@
+package org.fz.erwin.lambda;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Looks up the {@link AccessorBundle} generated for a class, once per class
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/6 10:30
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+class AccessorBundles {
+
+    private static final ClassValue<AccessorBundle<?>> BUNDLES = new ClassValue<>() {
+        @Override
+        protected AccessorBundle<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    static <T> Supplier<T> constructor(Class<T> type) {
+        AccessorBundle<T> bundle = (AccessorBundle<T>) BUNDLES.get(type);
+        return bundle == null ? null : bundle.constructor();
+    }
+
+    /**
+     * @return the prelinked getter, null if there is none returning exactly the given type
+     */
+    static <T, R> Function<T, R> getter(Class<?> type, Class<R> returnType, String methodName) {
+        AccessorBundle<T> bundle = (AccessorBundle<T>) BUNDLES.get(type);
+        if (bundle == null || bundle.getterType(methodName) != returnType) return null;
+        return (Function<T, R>) bundle.getter(methodName);
+    }
+
+    /**
+     * @return the prelinked setter, null if there is none taking exactly the given type
+     */
+    static <T, P> BiConsumer<T, P> setter(Class<?> type, Class<P> paramType, String methodName) {
+        AccessorBundle<T> bundle = (AccessorBundle<T>) BUNDLES.get(type);
+        if (bundle == null || bundle.setterType(methodName) != paramType) return null;
+        return (BiConsumer<T, P>) bundle.setter(methodName);
+    }
+
+    private static AccessorBundle<?> load(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isHidden()) return null;
+
+        Class<?> bundleType;
+        try {
+            bundleType = Class.forName(type.getName() + AccessorBundle.SUFFIX, true, type.getClassLoader());
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        if (!AccessorBundle.class.isAssignableFrom(bundleType)) return null;
+        try {
+            return (AccessorBundle<?>) bundleType.getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("can not instantiate accessor bundle [" + bundleType + "]", e);
+        }
+    }
+}
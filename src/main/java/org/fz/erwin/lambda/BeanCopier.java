@@ -0,0 +1,34 @@
+package org.fz.erwin.lambda;
+
+import org.fz.erwin.lambda.LambdaCache.Member;
+
+/**
+ * Copies all properties with the same name from a source bean to a target bean. Every (source, target) pair gets one
+ * generated hidden class whose copy method calls the getters and setters directly, one after another
+ * <p>
+ * Example: BeanCopier.of(UserDTO.class, User.class).copy(dto, user)
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/3 09:12
+ */
+@FunctionalInterface
+public interface BeanCopier<S, T> {
+
+    void copy(S source, T target);
+
+    /**
+     * copier of the properties whose types match exactly or are assignable
+     */
+    static <S, T> BeanCopier<S, T> of(Class<S> sourceType, Class<T> targetType) {
+        return of(sourceType, targetType, false);
+    }
+
+    /**
+     * @param convert also copy between a primitive and its wrapper, a null wrapper leaves the primitive untouched
+     */
+    static <S, T> BeanCopier<S, T> of(Class<S> sourceType, Class<T> targetType, boolean convert) {
+        return LambdaCache.computeIfAbsent(sourceType, Member.of(BeanCopierGenerator.COPIER, convert ? "convert" : "", targetType),
+                                           () -> BeanCopierGenerator.generate(sourceType, targetType, convert));
+    }
+}
@@ -0,0 +1,186 @@
+package org.fz.erwin.lambda;
+
+import cn.hutool.core.convert.BasicType;
+import lombok.experimental.UtilityClass;
+import org.fz.erwin.lambda.BeanMeta.Property;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the hidden classes behind {@link BeanCopier}
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/3 09:12
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+class BeanCopierGenerator {
+
+    static final String COPIER = "copier";
+
+    private static final String COPIER_INTERNAL = Type.getInternalName(BeanCopier.class);
+
+    static <S, T> BeanCopier<S, T> generate(Class<S> sourceType, Class<T> targetType, boolean convert) {
+        List<Mapping> mappings = mappings(BeanMeta.of(sourceType), BeanMeta.of(targetType), convert);
+        Lookup        lookup   = MethodHandles.lookup();
+
+        // the hidden class lives in this package, so it can only link against classes this package can see
+        if (!accessible(lookup, sourceType) || !accessible(lookup, targetType)) return reflective(mappings);
+
+        try {
+            byte[] bytes  = bytecode(sourceType, targetType, mappings);
+            Lookup hidden = lookup.defineHiddenClass(bytes, true);
+            return (BeanCopier<S, T>) hidden.findConstructor(hidden.lookupClass(), methodType(void.class)).invoke();
+        }
+        catch (Throwable throwable) {
+            throw new IllegalArgumentException("can not generate bean copier from [" + sourceType + "] to [" + targetType + "]", throwable);
+        }
+    }
+
+    private static List<Mapping> mappings(BeanMeta<?> source, BeanMeta<?> target, boolean convert) {
+        List<Mapping> mappings = new ArrayList<>(target.size());
+        for (Property<?> write : target.properties()) {
+            Property<?> read = source.property(write.name());
+            if (read == null || !read.readable() || !write.writable()) continue;
+
+            Conversion conversion = conversion(read.type(), write.type(), convert);
+            if (conversion != null) mappings.add(new Mapping(read, write, conversion));
+        }
+        return mappings;
+    }
+
+    /**
+     * @return null if the value can not be copied
+     */
+    private static Conversion conversion(Class<?> from, Class<?> to, boolean convert) {
+        if (from == to) return Conversion.NONE;
+        if (!from.isPrimitive() && !to.isPrimitive()) return to.isAssignableFrom(from) ? Conversion.NONE : null;
+        if (!convert) return null;
+
+        if (from.isPrimitive() && !to.isPrimitive()) return to.isAssignableFrom(BasicType.wrap(from)) ? Conversion.BOX : null;
+        if (!from.isPrimitive() && BasicType.unWrap(from) == to) return Conversion.UNBOX;
+        return null;
+    }
+
+    private static boolean accessible(Lookup lookup, Class<?> type) {
+        try {
+            lookup.accessClass(type);
+            return Class.forName(type.getName(), false, BeanCopierGenerator.class.getClassLoader()) == type;
+        }
+        catch (IllegalAccessException | ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * fallback for classes the hidden class can not link against, copies through the BeanMeta accessors, which only
+     * reference Object
+     */
+    private static <S, T> BeanCopier<S, T> reflective(List<Mapping> mappings) {
+        Mapping[] plan = mappings.toArray(new Mapping[0]);
+        return (source, target) -> {
+            for (Mapping mapping : plan) {
+                Object value = ((Property<S>) mapping.read()).get(source);
+                if (value == null && mapping.conversion() == Conversion.UNBOX) continue;
+                ((Property<T>) mapping.write()).set(target, value);
+            }
+        };
+    }
+
+    private static byte[] bytecode(Class<?> sourceType, Class<?> targetType, List<Mapping> mappings) {
+        String sourceInternal = Type.getInternalName(sourceType);
+        String targetInternal = Type.getInternalName(targetType);
+        String className      = Type.getInternalName(BeanCopierGenerator.class) + "$" + sourceType.getSimpleName() + "$" + targetType.getSimpleName();
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return "java/lang/Object";
+            }
+        };
+        cw.visit(V21, ACC_FINAL | ACC_SUPER, className, null, "java/lang/Object", new String[]{COPIER_INTERNAL});
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "copy", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, sourceInternal);
+        mv.visitVarInsn(ASTORE, 3);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitTypeInsn(CHECKCAST, targetInternal);
+        mv.visitVarInsn(ASTORE, 4);
+
+        for (Mapping mapping : mappings) {
+            Class<?> from = mapping.read().type();
+            Class<?> to   = mapping.write().type();
+
+            mv.visitVarInsn(ALOAD, 4);
+            mv.visitVarInsn(ALOAD, 3);
+            invoke(mv, sourceType, sourceInternal, mapping.read().readMethod().getName(), Type.getMethodDescriptor(Type.getType(from)));
+
+            Label skip = null;
+            switch (mapping.conversion()) {
+                case BOX -> {
+                    Class<?> wrapper = BasicType.wrap(from);
+                    mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                                       Type.getMethodDescriptor(Type.getType(wrapper), Type.getType(from)), false);
+                }
+                case UNBOX -> {
+                    skip = new Label();
+                    mv.visitInsn(DUP);
+                    mv.visitJumpInsn(IFNULL, skip);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(from), to.getName() + "Value",
+                                       Type.getMethodDescriptor(Type.getType(to)), false);
+                }
+                case NONE -> {}
+            }
+
+            invoke(mv, targetType, targetInternal, mapping.write().writeMethod().getName(), Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(to)));
+
+            if (skip != null) {
+                Label end = new Label();
+                mv.visitJumpInsn(GOTO, end);
+                // null wrapper: drop the target and the value, keep the primitive as it is
+                mv.visitLabel(skip);
+                mv.visitInsn(POP2);
+                mv.visitLabel(end);
+            }
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void invoke(MethodVisitor mv, Class<?> owner, String ownerInternal, String name, String descriptor) {
+        if (owner.isInterface()) mv.visitMethodInsn(INVOKEINTERFACE, ownerInternal, name, descriptor, true);
+        else                     mv.visitMethodInsn(INVOKEVIRTUAL, ownerInternal, name, descriptor, false);
+    }
+
+    enum Conversion {
+        NONE, BOX, UNBOX
+    }
+
+    record Mapping(Property<?> read, Property<?> write, Conversion conversion) {}
+}
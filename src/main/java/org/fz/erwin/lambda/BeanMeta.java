@@ -0,0 +1,250 @@
+package org.fz.erwin.lambda;
+
+import org.fz.erwin.lambda.LambdaCache.Member;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static cn.hutool.core.text.CharSequenceUtil.lowerFirst;
+
+/**
+ * Immutable accessor table of a java bean, built in one pass over the class and shared by all threads. Properties can
+ * be looked up by name, or by ordinal so hot code can keep an int instead of a string
+ * <p>
+ * Example: BeanMeta<User> meta = BeanMeta.of(User.class); int age = meta.ordinal("age"); meta.get(user, age)
+ * <p>
+ * Ordinals follow the field declaration order (super class first), properties without a backing field come last in
+ * name order. Record components are read-only properties in component order
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/2 15:40
+ */
+@SuppressWarnings("unchecked")
+public final class BeanMeta<T> {
+
+    static final String BEAN = "bean";
+
+    private final Class<T>                 type;
+    private final Property<T>[]            properties;
+    private final Map<String, Property<T>> index;
+    private final Supplier<T>              constructor;
+    private final Function<Object[], T>    canonicalConstructor;
+
+    private BeanMeta(Class<T> type, Property<T>[] properties, Supplier<T> constructor, Function<Object[], T> canonicalConstructor) {
+        this.type                 = type;
+        this.properties           = properties;
+        this.constructor          = constructor;
+        this.canonicalConstructor = canonicalConstructor;
+
+        Map<String, Property<T>> index = new HashMap<>(properties.length * 2);
+        for (Property<T> property : properties) index.put(property.name(), property);
+        this.index = Collections.unmodifiableMap(index);
+    }
+
+    public static <T> BeanMeta<T> of(Class<T> type) {
+        return LambdaCache.computeIfAbsent(type, Member.of(BEAN, ""), () -> build(type));
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public int size() {
+        return properties.length;
+    }
+
+    public List<Property<T>> properties() {
+        return List.of(properties);
+    }
+
+    public Property<T> property(int ordinal) {
+        return properties[ordinal];
+    }
+
+    /**
+     * @return the property with the name, null if absent
+     */
+    public Property<T> property(String name) {
+        return index.get(name);
+    }
+
+    /**
+     * @return the ordinal of the property, -1 if absent
+     */
+    public int ordinal(String name) {
+        Property<T> property = index.get(name);
+        return property == null ? -1 : property.ordinal();
+    }
+
+    public Object get(T bean, int ordinal) {
+        return properties[ordinal].get(bean);
+    }
+
+    public void set(T bean, int ordinal, Object value) {
+        properties[ordinal].set(bean, value);
+    }
+
+    /**
+     * @return the no-arg constructor whatever its visibility, for a record without one the canonical constructor called
+     * with the default values of the components. Null if the class has neither
+     */
+    public Supplier<T> constructor() {
+        return constructor;
+    }
+
+    /**
+     * @return the canonical constructor of a record, arguments in component order, null if the class is no record
+     */
+    public Function<Object[], T> canonicalConstructor() {
+        return canonicalConstructor;
+    }
+
+    public T newInstance() {
+        if (constructor == null) throw new IllegalStateException("class [" + type + "] has no no-arg constructor");
+        return constructor.get();
+    }
+
+    /**
+     * a record built from the values of its components, in component order
+     */
+    public T newInstance(Object... components) {
+        if (canonicalConstructor == null) throw new IllegalStateException("class [" + type + "] is not a record");
+        return canonicalConstructor.apply(components);
+    }
+
+    private static <T> BeanMeta<T> build(Class<T> type) {
+        Map<String, Method>       getters = new HashMap<>(16);
+        Map<String, List<Method>> setters = new HashMap<>(16);
+
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) continue;
+
+            String name = method.getName();
+            if (method.getParameterCount() == 0 && method.getReturnType() != void.class && method.getDeclaringClass() != Object.class) {
+                if (name.length() > 3 && name.startsWith("get"))
+                    getters.put(lowerFirst(name.substring(3)), method);
+                else if (name.length() > 2 && name.startsWith("is") && method.getReturnType() == boolean.class)
+                    getters.putIfAbsent(lowerFirst(name.substring(2)), method);
+            }
+            else if (method.getParameterCount() == 1 && method.getReturnType() == void.class && name.length() > 3 && name.startsWith("set")) {
+                setters.computeIfAbsent(lowerFirst(name.substring(3)), n -> new ArrayList<>(1)).add(method);
+            }
+        }
+
+        // record components are read through their accessors, name() instead of getName()
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) getters.put(component.getName(), component.getAccessor());
+        }
+
+        Set<String> names = new LinkedHashSet<>(16);
+        for (Field field : declaredFields(type)) {
+            String name = field.getName();
+            if (getters.containsKey(name) || setters.containsKey(name)) names.add(name);
+        }
+        SortedSet<String> rest = new TreeSet<>(getters.keySet());
+        rest.addAll(setters.keySet());
+        names.addAll(rest);
+
+        List<Property<T>> properties = new ArrayList<>(names.size());
+        int               ordinal    = 0;
+        for (String name : names) {
+            Method getter = getters.get(name);
+            Method setter = chooseSetter(getter, setters.getOrDefault(name, List.of()));
+            if (getter == null && setter == null) continue;
+
+            Class<?> propertyType = getter != null ? getter.getReturnType() : setter.getParameterTypes()[0];
+            properties.add(new Property<>(
+                    ordinal, name, propertyType, getter, setter,
+                    getter == null ? null : LambdaMetas.privateGetter(type, getter),
+                    setter == null ? null : LambdaMetas.privateSetter(type, setter)));
+            ordinal++;
+        }
+
+        Function<Object[], T> canonical   = type.isRecord() ? (Function<Object[], T>) LambdaMetas.recordConstructor(type.asSubclass(Record.class)) : null;
+        Supplier<T>           constructor = hasNoArgConstructor(type) ? LambdaMetas.privateConstructor(type) : canonical == null ? null : defaultsConstructor(type, canonical);
+
+        return new BeanMeta<>(type, properties.toArray((Property<T>[]) new Property<?>[0]), constructor, canonical);
+    }
+
+    /**
+     * the canonical constructor with null, 0 or false for every component
+     */
+    private static <T> Supplier<T> defaultsConstructor(Class<T> type, Function<Object[], T> canonical) {
+        RecordComponent[] components = type.getRecordComponents();
+        Object[]          defaults   = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Class<?> componentType = components[i].getType();
+            if (componentType.isPrimitive()) defaults[i] = Array.get(Array.newInstance(componentType, 1), 0);
+        }
+        return () -> canonical.apply(defaults.clone());
+    }
+
+    /**
+     * an overloaded setter has to match the getter type, without getter only a single setter is accepted
+     */
+    private static Method chooseSetter(Method getter, List<Method> candidates) {
+        if (getter == null) return candidates.size() == 1 ? candidates.get(0) : null;
+
+        for (Method candidate : candidates) {
+            if (candidate.getParameterTypes()[0] == getter.getReturnType()) return candidate;
+        }
+        return null;
+    }
+
+    private static List<Field> declaredFields(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>(4);
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) hierarchy.push(c);
+
+        List<Field> fields = new ArrayList<>(16);
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private static boolean hasNoArgConstructor(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) return false;
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * one property of the bean, getter or setter is null when the property is write-only or read-only
+     */
+    public record Property<T>(int ordinal, String name, Class<?> type, Method readMethod, Method writeMethod,
+                              Function<T, Object> getter, BiConsumer<T, Object> setter) {
+
+        public boolean readable() {
+            return getter != null;
+        }
+
+        public boolean writable() {
+            return setter != null;
+        }
+
+        public Object get(T bean) {
+            if (getter == null) throw new IllegalStateException("property [" + name + "] is not readable");
+            return getter.apply(bean);
+        }
+
+        public void set(T bean, Object value) {
+            if (setter == null) throw new IllegalStateException("property [" + name + "] is not writable");
+            setter.accept(bean, value);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.fz.erwin.lambda;
+
+import lombok.experimental.UtilityClass;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the hidden classes behind the field accessors, the BeanMeta accessors and the array constructors. Like
+ * {@link MethodInvokerGenerator} the handle sits in a static final field, so the JIT folds it and inlines the target
+ * instead of calling through a captured handle. The classes only reference Object and MethodHandle, so they link for
+ * non public classes and for classes of any class loader
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/16 09:40
+ */
+@UtilityClass
+class HandleFunctionGenerator {
+
+    private static final String
+            OBJECT        = "java/lang/Object",
+            OBJECT_DESC   = "Ljava/lang/Object;",
+            METHOD_HANDLE = Type.getInternalName(MethodHandle.class),
+            HANDLE_DESC   = Type.getDescriptor(MethodHandle.class),
+            HANDLE_FIELD  = "HANDLE",
+            GET_DESC      = "()" + OBJECT_DESC,
+            APPLY_DESC    = "(" + OBJECT_DESC + ")" + OBJECT_DESC,
+            ACCEPT_DESC   = "(" + OBJECT_DESC + OBJECT_DESC + ")V";
+
+    /**
+     * @param member the target of the handle, names the class and the errors
+     * @param kind   what is generated, e.g. getter
+     * @param handle ()Object handle
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Supplier<T> supplier(Member member, String kind, MethodHandle handle) {
+        return (Supplier<T>) generate(member, kind, handle, Supplier.class, "get", GET_DESC, 0, ARETURN);
+    }
+
+    /**
+     * @param handle (Object)Object handle
+     */
+    @SuppressWarnings("unchecked")
+    static <T, R> Function<T, R> function(Member member, String kind, MethodHandle handle) {
+        return (Function<T, R>) generate(member, kind, handle, Function.class, "apply", APPLY_DESC, 1, ARETURN);
+    }
+
+    /**
+     * @param handle (Object, Object)void handle
+     */
+    @SuppressWarnings("unchecked")
+    static <T, P> BiConsumer<T, P> biConsumer(Member member, String kind, MethodHandle handle) {
+        return (BiConsumer<T, P>) generate(member, kind, handle, BiConsumer.class, "accept", ACCEPT_DESC, 2, RETURN);
+    }
+
+    /**
+     * one class implementing the functional interface, its method passes its arguments to HANDLE.invokeExact
+     */
+    private static Object generate(Member member, String kind, MethodHandle handle, Class<?> itf, String sam, String descriptor, int arity, int returnOpcode) {
+        String name      = member instanceof Constructor<?> ? "new" : member.getName();
+        String className = Type.getInternalName(HandleFunctionGenerator.class) + "$" + member.getDeclaringClass().getSimpleName() + "$" + kind + "$" + name;
+
+        ClassWriter   cw = classWriter(className, Type.getInternalName(itf));
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, sam, descriptor, null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(GETSTATIC, className, HANDLE_FIELD, HANDLE_DESC);
+        for (int i = 1; i <= arity; i++) mv.visitVarInsn(ALOAD, i);
+        mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", descriptor, false);
+        mv.visitInsn(returnOpcode);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        try {
+            Lookup hidden = MethodHandles.lookup().defineHiddenClassWithClassData(cw.toByteArray(), handle, true);
+            return hidden.findConstructor(hidden.lookupClass(), methodType(void.class)).invoke();
+        }
+        catch (Throwable throwable) {
+            throw new IllegalArgumentException("can not generate " + kind + " for [" + member + "]", throwable);
+        }
+    }
+
+    /**
+     * class implementing the interface with the HANDLE field, its static initializer and a public no-arg constructor
+     */
+    private static ClassWriter classWriter(String className, String itf) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V21, ACC_FINAL | ACC_SUPER, className, null, OBJECT, new String[]{itf});
+        cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, HANDLE_FIELD, HANDLE_DESC, null, null).visitEnd();
+
+        // static initializer: HANDLE = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class)
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        mv.visitLdcInsn("_");
+        mv.visitLdcInsn(Type.getType(MethodHandle.class));
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                           "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+        mv.visitTypeInsn(CHECKCAST, METHOD_HANDLE);
+        mv.visitFieldInsn(PUTSTATIC, className, HANDLE_FIELD, HANDLE_DESC);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return cw;
+    }
+}
@@ -0,0 +1,97 @@
+package org.fz.erwin.lambda;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per class cache of the functional instances generated by {@link LambdaMetas}. The entries are attached to the owner
+ * class through a {@link ClassValue}, so they never keep a class loader reachable after its classes are gone
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/2 10:21
+ */
+@UtilityClass
+@SuppressWarnings("unchecked")
+public class LambdaCache {
+
+    private static final ClassValue<Map<Member, Object>> CACHE = new ClassValue<>() {
+        @Override
+        protected Map<Member, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(16);
+        }
+    };
+
+    private static final LongAdder
+            HITS   = new LongAdder(),
+            MISSES = new LongAdder(),
+            SIZE   = new LongAdder();
+
+    /**
+     * return the cached instance of the member, concurrent first lookups may all call the factory but all of them get
+     * the same instance back
+     */
+    static <F> F computeIfAbsent(Class<?> owner, Member member, Supplier<F> factory) {
+        Map<Member, Object> members = CACHE.get(owner);
+        Object              cached  = members.get(member);
+        if (cached != null) {
+            HITS.increment();
+            return (F) cached;
+        }
+
+        // generate outside of the map, the factory may look up other members of the same class
+        MISSES.increment();
+        F      created = factory.get();
+        Object raced   = members.putIfAbsent(member, created);
+        if (raced != null) return (F) raced;
+
+        SIZE.increment();
+        return created;
+    }
+
+    /**
+     * drop every cached instance of the class. The map stays attached to the class, so a concurrent lookup never puts
+     * into a detached map, and the size only counts down the entries this call actually removed
+     */
+    public static void evict(Class<?> owner) {
+        Map<Member, Object> members = CACHE.get(owner);
+        for (Member member : members.keySet()) {
+            if (members.remove(member) != null) SIZE.decrement();
+        }
+    }
+
+    public static Stats stats() {
+        return new Stats(HITS.sum(), MISSES.sum(), SIZE.sum());
+    }
+
+    public static void resetStats() {
+        HITS.reset();
+        MISSES.reset();
+    }
+
+    /**
+     * the cache key of one generated instance within its owner class
+     *
+     * @param kind  what is generated, e.g. getter, setter, constructor
+     * @param name  the member name, empty for constructors
+     * @param types the signature types of the member
+     */
+    record Member(String kind, String name, List<Class<?>> types) {
+
+        static Member of(String kind, String name, Class<?>... types) {
+            return new Member(kind, name, List.of(types));
+        }
+    }
+
+    /**
+     * @param hits   lookups answered from the cache
+     * @param misses lookups that had to generate a new instance
+     * @param size   instances currently held in the cache
+     */
+    public record Stats(long hits, long misses, long size) {}
+}
@@ -1,21 +1,30 @@
 package org.fz.erwin.lambda;
 
 import lombok.experimental.UtilityClass;
+import org.fz.erwin.exception.Throws;
+import org.fz.erwin.lambda.LambdaCache.Member;
 import org.fz.erwin.lambda.Try.LambdasException;
 
 import java.lang.invoke.*;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
-import java.util.function.BiConsumer;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.function.Supplier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.*;
 
 import static cn.hutool.core.text.CharSequenceUtil.upperFirstAndAddPre;
 import static java.lang.invoke.MethodType.methodType;
 
 /**
+ * Generates functional instances for constructors, getters and setters. Classes annotated with {@link Prelinked} use
+ * the accessors compiled by erwin-processor, all others are linked through the LambdaMetafactory on first use
+ *
  * @author fengbinbin
  * @version 1.0
  * @since 2025/4/27 16:37
@@ -23,7 +32,318 @@ import static java.lang.invoke.MethodType.methodType;
 @UtilityClass
 @SuppressWarnings("unchecked")
 public class LambdaMetas {
+    static final String
+            CONSTRUCTOR       = "constructor",
+            GETTER            = "getter",
+            SETTER            = "setter",
+            PRIMITIVE_GETTER  = "primitiveGetter",
+            PRIMITIVE_SETTER  = "primitiveSetter",
+            FIELD_GETTER      = "fieldGetter",
+            FIELD_SETTER      = "fieldSetter",
+            ARRAY_CONSTRUCTOR = "arrayConstructor",
+            RECORD_ACCESSORS  = "recordAccessors";
+
     public static <T> Supplier<T> lambdaConstructor(Class<T> clazz) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(CONSTRUCTOR, ""), () -> {
+            Supplier<T> prelinked = AccessorBundles.constructor(clazz);
+            return prelinked != null ? prelinked : generateConstructor(clazz);
+        });
+    }
+
+    public static <P, T> Function<P, T> lambdaConstructor(Class<T> clazz, Class<P> p0Type) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(CONSTRUCTOR, "", p0Type), () -> generateConstructor(clazz, p0Type));
+    }
+
+    public static <P, B, T> BiFunction<P, B, T> lambdaConstructor(Class<T> clazz, Class<P> p0Type, Class<B> p1Type) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(CONSTRUCTOR, "", p0Type, p1Type),
+                                           () -> generateConstructor(clazz, p0Type, p1Type));
+    }
+
+    public static <P0, P1, P2, T> Function3<P0, P1, P2, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type) {
+        return constructor(clazz, Function3.class, p0Type, p1Type, p2Type);
+    }
+
+    public static <P0, P1, P2, P3, T> Function4<P0, P1, P2, P3, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type, Class<P3> p3Type) {
+        return constructor(clazz, Function4.class, p0Type, p1Type, p2Type, p3Type);
+    }
+
+    public static <P0, P1, P2, P3, P4, T> Function5<P0, P1, P2, P3, P4, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type, Class<P3> p3Type,
+                                                                                          Class<P4> p4Type) {
+        return constructor(clazz, Function5.class, p0Type, p1Type, p2Type, p3Type, p4Type);
+    }
+
+    public static <P0, P1, P2, P3, P4, P5, T> Function6<P0, P1, P2, P3, P4, P5, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type, Class<P3> p3Type,
+                                                                                                  Class<P4> p4Type, Class<P5> p5Type) {
+        return constructor(clazz, Function6.class, p0Type, p1Type, p2Type, p3Type, p4Type, p5Type);
+    }
+
+    public static <P0, P1, P2, P3, P4, P5, P6, T> Function7<P0, P1, P2, P3, P4, P5, P6, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type, Class<P3> p3Type,
+                                                                                                          Class<P4> p4Type, Class<P5> p5Type, Class<P6> p6Type) {
+        return constructor(clazz, Function7.class, p0Type, p1Type, p2Type, p3Type, p4Type, p5Type, p6Type);
+    }
+
+    public static <P0, P1, P2, P3, P4, P5, P6, P7, T> Function8<P0, P1, P2, P3, P4, P5, P6, P7, T> lambdaConstructor(Class<T> clazz, Class<P0> p0Type, Class<P1> p1Type, Class<P2> p2Type, Class<P3> p3Type,
+                                                                                                                  Class<P4> p4Type, Class<P5> p5Type, Class<P6> p6Type, Class<P7> p7Type) {
+        return constructor(clazz, Function8.class, p0Type, p1Type, p2Type, p3Type, p4Type, p5Type, p6Type, p7Type);
+    }
+
+    /**
+     * constructor of any arity taking its arguments as an array, the array length has to match the param types
+     */
+    public static <T> Function<Object[], T> arrayConstructor(Class<T> clazz, Class<?>... paramTypes) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(ARRAY_CONSTRUCTOR, "", paramTypes), () -> {
+            try {
+                Constructor<T> constructor = clazz.getDeclaredConstructor(paramTypes);
+                MethodHandle   handle      = privateLookup(clazz).unreflectConstructor(constructor)
+                                                                 .asSpreader(Object[].class, paramTypes.length)
+                                                                 .asType(methodType(Object.class, Object.class));
+                return HandleFunctionGenerator.function(constructor, ARRAY_CONSTRUCTOR, handle);
+            }
+            catch (ReflectiveOperationException exception) {
+                throw new LambdasException("can not generate array constructor for class [" + clazz + "], param types: " + Arrays.toString(paramTypes), exception);
+            }
+        });
+    }
+
+    //***************************************           record start             *************************************//
+
+    /**
+     * the canonical constructor of the record, arguments in component declaration order
+     */
+    public static <R extends Record> Function<Object[], R> recordConstructor(Class<R> recordType) {
+        Throws.ifFalse(recordType.isRecord(), () -> new IllegalArgumentException("class [" + recordType + "] is not a record"));
+
+        return arrayConstructor(recordType, Arrays.stream(recordType.getRecordComponents()).map(RecordComponent::getType).toArray(Class[]::new));
+    }
+
+    /**
+     * the component accessors of the record in declaration order
+     */
+    public static <R extends Record> List<Function<R, Object>> recordAccessors(Class<R> recordType) {
+        Throws.ifFalse(recordType.isRecord(), () -> new IllegalArgumentException("class [" + recordType + "] is not a record"));
+
+        return LambdaCache.computeIfAbsent(recordType, Member.of(RECORD_ACCESSORS, ""), () -> {
+            List<Function<R, Object>> accessors = new ArrayList<>(recordType.getRecordComponents().length);
+            for (RecordComponent component : recordType.getRecordComponents()) {
+                accessors.add(privateGetter(recordType, component.getAccessor()));
+            }
+            return List.copyOf(accessors);
+        });
+    }
+
+    public static <T, R> Function<T, R> lambdaGetter(Type clazz, Class<R> returnType, String methodName) {
+        return LambdaCache.computeIfAbsent((Class<?>) clazz, Member.of(GETTER, methodName, returnType), () -> {
+            Function<T, R> prelinked = AccessorBundles.getter((Class<?>) clazz, returnType, methodName);
+            return prelinked != null ? prelinked : generateGetter(clazz, returnType, methodName);
+        });
+    }
+
+    public static <A, P> BiConsumer<A, P> lambdaSetter(Class<A> clazz, Class<P> paramType, String methodName) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(SETTER, methodName, paramType), () -> {
+            BiConsumer<A, P> prelinked = AccessorBundles.setter(clazz, paramType, methodName);
+            return prelinked != null ? prelinked : generateSetter(clazz, paramType, methodName);
+        });
+    }
+
+    public static <A, R> Function<A, R> lambdaGetter(Field field) {
+        return (Function<A, R>) lambdaGetter(field.getDeclaringClass(), field.getType(), getterName(field));
+    }
+
+    public static <A, P> BiConsumer<A, P> lambdaSetter(Field field) {
+        return (BiConsumer<A, P>) lambdaSetter(field.getDeclaringClass(), field.getType(), setterName(field));
+    }
+
+    //***************************************       primitive getter start       *************************************//
+
+    public static <T> ToIntFunction<T> lambdaIntGetter(Class<T> clazz, String methodName)         { return primitiveGetter(clazz, int.class, methodName, ToIntFunction.class, "applyAsInt"); }
+
+    public static <T> ToLongFunction<T> lambdaLongGetter(Class<T> clazz, String methodName)       { return primitiveGetter(clazz, long.class, methodName, ToLongFunction.class, "applyAsLong"); }
+
+    public static <T> ToDoubleFunction<T> lambdaDoubleGetter(Class<T> clazz, String methodName)   { return primitiveGetter(clazz, double.class, methodName, ToDoubleFunction.class, "applyAsDouble"); }
+
+    public static <T> ToFloatFunction<T> lambdaFloatGetter(Class<T> clazz, String methodName)     { return primitiveGetter(clazz, float.class, methodName, ToFloatFunction.class, "applyAsFloat"); }
+
+    public static <T> ToShortFunction<T> lambdaShortGetter(Class<T> clazz, String methodName)     { return primitiveGetter(clazz, short.class, methodName, ToShortFunction.class, "applyAsShort"); }
+
+    public static <T> ToByteFunction<T> lambdaByteGetter(Class<T> clazz, String methodName)       { return primitiveGetter(clazz, byte.class, methodName, ToByteFunction.class, "applyAsByte"); }
+
+    public static <T> ToCharFunction<T> lambdaCharGetter(Class<T> clazz, String methodName)       { return primitiveGetter(clazz, char.class, methodName, ToCharFunction.class, "applyAsChar"); }
+
+    public static <T> ToBooleanFunction<T> lambdaBooleanGetter(Class<T> clazz, String methodName) { return primitiveGetter(clazz, boolean.class, methodName, ToBooleanFunction.class, "applyAsBoolean"); }
+
+    public static <T> ToIntFunction<T> lambdaIntGetter(Field field)                               { return lambdaIntGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToLongFunction<T> lambdaLongGetter(Field field)                             { return lambdaLongGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToDoubleFunction<T> lambdaDoubleGetter(Field field)                         { return lambdaDoubleGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToFloatFunction<T> lambdaFloatGetter(Field field)                           { return lambdaFloatGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToShortFunction<T> lambdaShortGetter(Field field)                           { return lambdaShortGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToByteFunction<T> lambdaByteGetter(Field field)                             { return lambdaByteGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToCharFunction<T> lambdaCharGetter(Field field)                             { return lambdaCharGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    public static <T> ToBooleanFunction<T> lambdaBooleanGetter(Field field)                       { return lambdaBooleanGetter((Class<T>) field.getDeclaringClass(), getterName(field)); }
+
+    //***************************************       primitive setter start       *************************************//
+
+    public static <T> ObjIntConsumer<T> lambdaIntSetter(Class<T> clazz, String methodName)         { return primitiveSetter(clazz, int.class, methodName, ObjIntConsumer.class); }
+
+    public static <T> ObjLongConsumer<T> lambdaLongSetter(Class<T> clazz, String methodName)       { return primitiveSetter(clazz, long.class, methodName, ObjLongConsumer.class); }
+
+    public static <T> ObjDoubleConsumer<T> lambdaDoubleSetter(Class<T> clazz, String methodName)   { return primitiveSetter(clazz, double.class, methodName, ObjDoubleConsumer.class); }
+
+    public static <T> ObjFloatConsumer<T> lambdaFloatSetter(Class<T> clazz, String methodName)     { return primitiveSetter(clazz, float.class, methodName, ObjFloatConsumer.class); }
+
+    public static <T> ObjShortConsumer<T> lambdaShortSetter(Class<T> clazz, String methodName)     { return primitiveSetter(clazz, short.class, methodName, ObjShortConsumer.class); }
+
+    public static <T> ObjByteConsumer<T> lambdaByteSetter(Class<T> clazz, String methodName)       { return primitiveSetter(clazz, byte.class, methodName, ObjByteConsumer.class); }
+
+    public static <T> ObjCharConsumer<T> lambdaCharSetter(Class<T> clazz, String methodName)       { return primitiveSetter(clazz, char.class, methodName, ObjCharConsumer.class); }
+
+    public static <T> ObjBooleanConsumer<T> lambdaBooleanSetter(Class<T> clazz, String methodName) { return primitiveSetter(clazz, boolean.class, methodName, ObjBooleanConsumer.class); }
+
+    public static <T> ObjIntConsumer<T> lambdaIntSetter(Field field)                               { return lambdaIntSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjLongConsumer<T> lambdaLongSetter(Field field)                             { return lambdaLongSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjDoubleConsumer<T> lambdaDoubleSetter(Field field)                         { return lambdaDoubleSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjFloatConsumer<T> lambdaFloatSetter(Field field)                           { return lambdaFloatSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjShortConsumer<T> lambdaShortSetter(Field field)                           { return lambdaShortSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjByteConsumer<T> lambdaByteSetter(Field field)                             { return lambdaByteSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjCharConsumer<T> lambdaCharSetter(Field field)                             { return lambdaCharSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    public static <T> ObjBooleanConsumer<T> lambdaBooleanSetter(Field field)                       { return lambdaBooleanSetter((Class<T>) field.getDeclaringClass(), setterName(field)); }
+
+    /**
+     * the java bean getter name of the field, primitive boolean fields use the "is" prefix
+     */
+    static String getterName(Field field) {
+        return upperFirstAndAddPre(field.getName(), field.getType() == boolean.class ? "is" : "get");
+    }
+
+    static String setterName(Field field) {
+        return upperFirstAndAddPre(field.getName(), "set");
+    }
+
+    //***************************************        field accessor start        *************************************//
+
+    /**
+     * getter bound straight to the field, no getter method needed, works for records, public fields and private fields
+     */
+    public static <T, R> Function<T, R> fieldGetter(Field field) {
+        return fieldGetter(field, FieldAccess.PLAIN);
+    }
+
+    public static <T, R> Function<T, R> fieldGetter(Field field, FieldAccess access) {
+        return LambdaCache.computeIfAbsent(field.getDeclaringClass(), Member.of(access.getterKey, field.getName(), field.getType()), () -> {
+            MethodHandle handle = fieldHandle(field, access.get).asType(methodType(Object.class, Object.class));
+            return HandleFunctionGenerator.function(field, "fieldGetter", handle);
+        });
+    }
+
+    /**
+     * setter bound straight to the field, final fields can not be set
+     */
+    public static <T, P> BiConsumer<T, P> fieldSetter(Field field) {
+        return fieldSetter(field, FieldAccess.PLAIN);
+    }
+
+    public static <T, P> BiConsumer<T, P> fieldSetter(Field field, FieldAccess access) {
+        return LambdaCache.computeIfAbsent(field.getDeclaringClass(), Member.of(access.setterKey, field.getName(), field.getType()), () -> {
+            MethodHandle handle = fieldHandle(field, access.set).asType(methodType(void.class, Object.class, Object.class));
+            return HandleFunctionGenerator.biConsumer(field, "fieldSetter", handle);
+        });
+    }
+
+    //***************************************       private accessor start       *************************************//
+
+    /**
+     * no-arg constructor through the private lookup of the class, unlike {@link #lambdaConstructor(Class)} it works
+     * for non public classes and for classes of other class loaders. A prelinked constructor is used if there is one
+     */
+    static <T> Supplier<T> privateConstructor(Class<T> clazz) {
+        Supplier<T> prelinked = AccessorBundles.constructor(clazz);
+        if (prelinked != null) return prelinked;
+
+        try {
+            Constructor<T> constructor = clazz.getDeclaredConstructor();
+            MethodHandle   handle      = privateLookup(clazz).unreflectConstructor(constructor).asType(methodType(Object.class));
+            return HandleFunctionGenerator.supplier(constructor, CONSTRUCTOR, handle);
+        }
+        catch (ReflectiveOperationException exception) {
+            throw new LambdasException("can not generate constructor for class [" + clazz + "]", exception);
+        }
+    }
+
+    /**
+     * getter of the type through the private lookup of the declaring class of the method, see {@link #privateConstructor}
+     */
+    static <T> Function<T, Object> privateGetter(Class<T> type, Method getter) {
+        Function<T, Object> prelinked = AccessorBundles.getter(type, (Class<Object>) getter.getReturnType(), getter.getName());
+        if (prelinked != null) return prelinked;
+
+        try {
+            MethodHandle handle = MethodInvokerGenerator.handle(getter).asType(methodType(Object.class, Object.class));
+            return HandleFunctionGenerator.function(getter, GETTER, handle);
+        }
+        catch (IllegalAccessException exception) {
+            throw new IllegalArgumentException("can not generate getter, class [" + type + "], method: [" + getter + "]", exception);
+        }
+    }
+
+    /**
+     * setter of the type through the private lookup of the declaring class of the method, see {@link #privateConstructor}
+     */
+    static <T> BiConsumer<T, Object> privateSetter(Class<T> type, Method setter) {
+        BiConsumer<T, Object> prelinked = AccessorBundles.setter(type, (Class<Object>) setter.getParameterTypes()[0], setter.getName());
+        if (prelinked != null) return prelinked;
+
+        try {
+            MethodHandle handle = MethodInvokerGenerator.handle(setter).asType(methodType(void.class, Object.class, Object.class));
+            return HandleFunctionGenerator.biConsumer(setter, SETTER, handle);
+        }
+        catch (IllegalAccessException exception) {
+            throw new IllegalArgumentException("can not generate setter, class [" + type + "], method: [" + setter + "]", exception);
+        }
+    }
+
+    /**
+     * the private lookup of the class, the public one if its package is not open to us
+     */
+    private static Lookup privateLookup(Class<?> clazz) {
+        try {
+            return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        }
+        catch (IllegalAccessException exception) {
+            return MethodHandles.lookup();
+        }
+    }
+
+    /**
+     * the access mode handle of the field, static fields get an ignored leading instance parameter
+     */
+    private static MethodHandle fieldHandle(Field field, VarHandle.AccessMode mode) {
+        try {
+            Lookup    lookup    = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            VarHandle varHandle = lookup.unreflectVarHandle(field);
+            if (!varHandle.isAccessModeSupported(mode)) throw new UnsupportedOperationException("access mode " + mode + " is not supported");
+
+            MethodHandle handle = varHandle.toMethodHandle(mode);
+            return Modifier.isStatic(field.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+        }
+        catch (Exception exception) {
+            throw new IllegalArgumentException("can not generate field accessor, field [" + field + "], access mode: [" + mode + "]", exception);
+        }
+    }
+
+    private static <T> Supplier<T> generateConstructor(Class<T> clazz) {
         try {
             Lookup       lookup            = MethodHandles.lookup();
             MethodHandle constructorHandle = lookup.findConstructor(clazz, methodType(void.class));
@@ -34,7 +354,7 @@ public class LambdaMetas {
                     MethodType.methodType(Supplier.class),
                     constructorHandle.type().generic(),
                     constructorHandle,
-                    constructorHandle.type());
+                    constructorHandle.type().wrap());
 
             return (Supplier<T>) site.getTarget().invokeExact();
         }
@@ -43,7 +363,7 @@ public class LambdaMetas {
         }
     }
 
-    public static <P, T> Function<P, T> lambdaConstructor(Class<T> clazz, Class<P> p0Type) {
+    private static <P, T> Function<P, T> generateConstructor(Class<T> clazz, Class<P> p0Type) {
         try {
             Lookup lookup = MethodHandles.lookup();
             MethodHandle constructorHandle = lookup.findConstructor(clazz, methodType(void.class, p0Type));
@@ -54,7 +374,7 @@ public class LambdaMetas {
                     MethodType.methodType(Function.class),
                     constructorHandle.type().generic(),
                     constructorHandle,
-                    constructorHandle.type());
+                    constructorHandle.type().wrap());
 
             return (Function<P, T>) site.getTarget().invokeExact();
         }
@@ -63,7 +383,7 @@ public class LambdaMetas {
         }
     }
 
-    public static <P, B, T> BiFunction<P, B, T> lambdaConstructor(Class<T> clazz, Class<P> p0Type, Class<B> p1Type) {
+    private static <P, B, T> BiFunction<P, B, T> generateConstructor(Class<T> clazz, Class<P> p0Type, Class<B> p1Type) {
         try {
             Lookup       lookup            = MethodHandles.lookup();
             MethodHandle constructorHandle = lookup.findConstructor(clazz, methodType(void.class, p0Type, p1Type));
@@ -74,7 +394,7 @@ public class LambdaMetas {
                     MethodType.methodType(BiFunction.class),
                     constructorHandle.type().generic(),
                     constructorHandle,
-                    constructorHandle.type());
+                    constructorHandle.type().wrap());
 
             return (BiFunction<P, B, T>) site.getTarget().invokeExact();
         }
@@ -83,7 +403,29 @@ public class LambdaMetas {
         }
     }
 
-    public static <T, R> Function<T, R> lambdaGetter(Type clazz, Class<R> returnType, String methodName) {
+    private static <F> F constructor(Class<?> clazz, Class<?> functionType, Class<?>... paramTypes) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(CONSTRUCTOR, "", paramTypes), () -> {
+            try {
+                Lookup       lookup            = MethodHandles.lookup();
+                MethodHandle constructorHandle = lookup.findConstructor(clazz, methodType(void.class, paramTypes));
+
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "apply",
+                        methodType(functionType),
+                        constructorHandle.type().generic(),
+                        constructorHandle,
+                        constructorHandle.type().wrap());
+
+                return (F) site.getTarget().invoke();
+            }
+            catch (Throwable throwable) {
+                throw new LambdasException("can not generate lambda constructor for class [" + clazz + "], param types: " + Arrays.toString(paramTypes), throwable);
+            }
+        });
+    }
+
+    private static <T, R> Function<T, R> generateGetter(Type clazz, Class<R> returnType, String methodName) {
         try {
             Lookup       lookup       = MethodHandles.lookup();
             MethodHandle getterHandle = lookup.findVirtual((Class<T>) clazz, methodName, methodType(returnType));
@@ -103,7 +445,7 @@ public class LambdaMetas {
         }
     }
 
-    public static <A, P> BiConsumer<A, P> lambdaSetter(Class<A> clazz, Class<P> paramType, String methodName) {
+    private static <A, P> BiConsumer<A, P> generateSetter(Class<A> clazz, Class<P> paramType, String methodName) {
         try {
             Lookup       lookup       = MethodHandles.lookup();
             MethodHandle setterHandle = lookup.findVirtual(clazz, methodName, methodType(void.class, paramType));
@@ -114,7 +456,7 @@ public class LambdaMetas {
                     methodType(BiConsumer.class),
                     methodType(void.class, Object.class, Object.class),
                     setterHandle,
-                    setterHandle.type());
+                    setterHandle.type().wrap().changeReturnType(void.class));
 
             return (BiConsumer<A, P>) site.getTarget().invokeExact();
         }
@@ -123,13 +465,170 @@ public class LambdaMetas {
         }
     }
 
-    public static <A, R> Function<A, R> lambdaGetter(Field field) {
-        return (Function<A, R>) lambdaGetter(field.getDeclaringClass(), field.getType(),
-                                             upperFirstAndAddPre(field.getName(), "get"));
+    private static <F> F primitiveGetter(Class<?> clazz, Class<?> primitive, String methodName, Class<?> functionType, String samName) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(PRIMITIVE_GETTER, methodName, primitive), () -> {
+            try {
+                Lookup       lookup       = MethodHandles.lookup();
+                MethodHandle getterHandle = lookup.findVirtual(clazz, methodName, methodType(primitive));
+
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        samName,
+                        methodType(functionType),
+                        methodType(primitive, Object.class),
+                        getterHandle,
+                        getterHandle.type());
+
+                return (F) site.getTarget().invoke();
+            }
+            catch (Throwable throwable) {
+                throw new IllegalArgumentException("can not generate lambda " + primitive + " getter, class [" + clazz + "], method: [" + methodName + "]", throwable);
+            }
+        });
     }
 
-    public static <A, P> BiConsumer<A, P> lambdaSetter(Field field) {
-        return (BiConsumer<A, P>) lambdaSetter(field.getDeclaringClass(), field.getType(),
-                                               upperFirstAndAddPre(field.getName(), "set"));
+    private static <F> F primitiveSetter(Class<?> clazz, Class<?> primitive, String methodName, Class<?> functionType) {
+        return LambdaCache.computeIfAbsent(clazz, Member.of(PRIMITIVE_SETTER, methodName, primitive), () -> {
+            try {
+                Lookup       lookup       = MethodHandles.lookup();
+                MethodHandle setterHandle = lookup.findVirtual(clazz, methodName, methodType(void.class, primitive));
+
+                CallSite site = LambdaMetafactory.metafactory(
+                        lookup,
+                        "accept",
+                        methodType(functionType),
+                        methodType(void.class, Object.class, primitive),
+                        setterHandle,
+                        setterHandle.type());
+
+                return (F) site.getTarget().invoke();
+            }
+            catch (Throwable throwable) {
+                throw new IllegalArgumentException("can not generate lambda " + primitive + " setter, class [" + clazz + "], method: [" + methodName + "]", throwable);
+            }
+        });
+    }
+
+    /**
+     * memory semantics of the field accessors, mapped to the {@link VarHandle} access modes
+     */
+    public enum FieldAccess {
+        /** plain read and write, like a normal field access */
+        PLAIN(VarHandle.AccessMode.GET, VarHandle.AccessMode.SET),
+        /** bitwise atomic and coherent per field, no ordering with other variables */
+        OPAQUE(VarHandle.AccessMode.GET_OPAQUE, VarHandle.AccessMode.SET_OPAQUE),
+        /** acquire on read and release on write */
+        ACQUIRE_RELEASE(VarHandle.AccessMode.GET_ACQUIRE, VarHandle.AccessMode.SET_RELEASE),
+        /** same as a volatile field access */
+        VOLATILE(VarHandle.AccessMode.GET_VOLATILE, VarHandle.AccessMode.SET_VOLATILE);
+
+        final VarHandle.AccessMode get;
+        final VarHandle.AccessMode set;
+        /** cache kinds of the accessors, built once so a lookup does not concatenate */
+        final String               getterKey;
+        final String               setterKey;
+
+        FieldAccess(VarHandle.AccessMode get, VarHandle.AccessMode set) {
+            this.get       = get;
+            this.set       = set;
+            this.getterKey = FIELD_GETTER + "." + name();
+            this.setterKey = FIELD_SETTER + "." + name();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Function3<P0, P1, P2, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2);
+    }
+
+    @FunctionalInterface
+    public interface Function4<P0, P1, P2, P3, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2, P3 p3);
+    }
+
+    @FunctionalInterface
+    public interface Function5<P0, P1, P2, P3, P4, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2, P3 p3, P4 p4);
+    }
+
+    @FunctionalInterface
+    public interface Function6<P0, P1, P2, P3, P4, P5, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2, P3 p3, P4 p4, P5 p5);
+    }
+
+    @FunctionalInterface
+    public interface Function7<P0, P1, P2, P3, P4, P5, P6, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2, P3 p3, P4 p4, P5 p5, P6 p6);
+    }
+
+    @FunctionalInterface
+    public interface Function8<P0, P1, P2, P3, P4, P5, P6, P7, R> {
+
+        R apply(P0 p0, P1 p1, P2 p2, P3 p3, P4 p4, P5 p5, P6 p6, P7 p7);
+    }
+
+    @FunctionalInterface
+    public interface ToBooleanFunction<T> {
+
+        boolean applyAsBoolean(T value);
+    }
+
+    @FunctionalInterface
+    public interface ToShortFunction<T> {
+
+        short applyAsShort(T value);
+    }
+
+    @FunctionalInterface
+    public interface ToByteFunction<T> {
+
+        byte applyAsByte(T value);
+    }
+
+    @FunctionalInterface
+    public interface ToCharFunction<T> {
+
+        char applyAsChar(T value);
+    }
+
+    @FunctionalInterface
+    public interface ToFloatFunction<T> {
+
+        float applyAsFloat(T value);
+    }
+
+    @FunctionalInterface
+    public interface ObjBooleanConsumer<T> {
+
+        void accept(T t, boolean value);
+    }
+
+    @FunctionalInterface
+    public interface ObjShortConsumer<T> {
+
+        void accept(T t, short value);
+    }
+
+    @FunctionalInterface
+    public interface ObjByteConsumer<T> {
+
+        void accept(T t, byte value);
+    }
+
+    @FunctionalInterface
+    public interface ObjCharConsumer<T> {
+
+        void accept(T t, char value);
+    }
+
+    @FunctionalInterface
+    public interface ObjFloatConsumer<T> {
+
+        void accept(T t, float value);
     }
 }
@@ -0,0 +1,77 @@
+package org.fz.erwin.lambda;
+
+import org.fz.erwin.lambda.LambdaCache.Member;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invoker of any method: static, virtual, interface or private. Call the invoke overload with the same number of
+ * arguments as the method, the arguments are passed on one to one without being packed into an array. The target is
+ * ignored for static methods. Methods with more than 8 parameters can only be called through {@link #invokeArgs}
+ * <p>
+ * Example: MethodInvoker.of(method).invoke(service, request, context)
+ * <p>
+ * Exceptions thrown by the method, checked ones included, are propagated as they are, not wrapped
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/5 14:02
+ */
+public interface MethodInvoker {
+
+    static MethodInvoker of(Method method) {
+        return LambdaCache.computeIfAbsent(method.getDeclaringClass(),
+                                           Member.of(MethodInvokerGenerator.INVOKER, method.getName(), method.getParameterTypes()),
+                                           () -> MethodInvokerGenerator.generate(method));
+    }
+
+    /**
+     * the number of parameters of the method
+     */
+    int arity();
+
+    default Object invoke(Object target) {
+        throw wrongArity(0);
+    }
+
+    default Object invoke(Object target, Object a0) {
+        throw wrongArity(1);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1) {
+        throw wrongArity(2);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2) {
+        throw wrongArity(3);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2, Object a3) {
+        throw wrongArity(4);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4) {
+        throw wrongArity(5);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5) {
+        throw wrongArity(6);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6) {
+        throw wrongArity(7);
+    }
+
+    default Object invoke(Object target, Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6, Object a7) {
+        throw wrongArity(8);
+    }
+
+    /**
+     * invoke with the arguments in an array, for callers which only have the arguments as an array
+     */
+    Object invokeArgs(Object target, Object... args);
+
+    private IllegalArgumentException wrongArity(int given) {
+        return new IllegalArgumentException("wrong number of arguments, method takes " + arity() + " but " + given + " given");
+    }
+}
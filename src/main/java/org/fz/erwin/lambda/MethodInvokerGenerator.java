@@ -0,0 +1,157 @@
+package org.fz.erwin.lambda;
+
+import lombok.experimental.UtilityClass;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the hidden classes behind {@link MethodInvoker}. The generated class keeps the method handle in a static
+ * final field, which the JIT treats as a constant, so invokeExact is inlined down to the target method. It only
+ * references Object and MethodHandle, so it links no matter which class loader the target class comes from
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/5 14:02
+ */
+@UtilityClass
+class MethodInvokerGenerator {
+
+    static final String INVOKER = "invoker";
+
+    /**
+     * invoke overloads exist up to this arity, bigger methods only get invokeArgs
+     */
+    static final int MAX_FIXED_ARITY = 8;
+
+    private static final String
+            OBJECT           = "java/lang/Object",
+            OBJECT_DESC      = "Ljava/lang/Object;",
+            METHOD_HANDLE    = Type.getInternalName(MethodHandle.class),
+            HANDLE_FIELD     = "HANDLE",
+            INVOKER_INTERNAL = Type.getInternalName(MethodInvoker.class);
+
+    static MethodInvoker generate(Method method) {
+        try {
+            int          arity  = method.getParameterCount();
+            MethodHandle handle = handle(method).asType(MethodType.genericMethodType(arity + 1));
+
+            Lookup hidden = MethodHandles.lookup().defineHiddenClassWithClassData(bytecode(method, arity), handle, true);
+            return (MethodInvoker) hidden.findConstructor(hidden.lookupClass(), methodType(void.class)).invoke();
+        }
+        catch (Throwable throwable) {
+            throw new IllegalArgumentException("can not generate method invoker for method [" + method + "]", throwable);
+        }
+    }
+
+    /**
+     * direct handle of the method with the target as first parameter, static methods ignore the target
+     */
+    static MethodHandle handle(Method method) throws IllegalAccessException {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+        }
+        catch (IllegalAccessException e) {
+            // the package is not open to us, public methods are still reachable
+            handle = MethodHandles.lookup().unreflect(method);
+        }
+
+        handle = handle.asFixedArity();
+        return Modifier.isStatic(method.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+    }
+
+    private static byte[] bytecode(Method method, int arity) {
+        String className = Type.getInternalName(MethodInvokerGenerator.class) + "$" + method.getDeclaringClass().getSimpleName() + "$" + method.getName();
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V21, ACC_FINAL | ACC_SUPER, className, null, OBJECT, new String[]{INVOKER_INTERNAL});
+        cw.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, HANDLE_FIELD, Type.getDescriptor(MethodHandle.class), null, null).visitEnd();
+
+        // static initializer: HANDLE = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class)
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+        mv.visitLdcInsn("_");
+        mv.visitLdcInsn(Type.getType(MethodHandle.class));
+        mv.visitMethodInsn(INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                           "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+        mv.visitTypeInsn(CHECKCAST, METHOD_HANDLE);
+        mv.visitFieldInsn(PUTSTATIC, className, HANDLE_FIELD, Type.getDescriptor(MethodHandle.class));
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "arity", "()I", null, null);
+        mv.visitCode();
+        mv.visitIntInsn(SIPUSH, arity);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        String invokeDesc = genericDescriptor(arity + 1);
+        if (arity <= MAX_FIXED_ARITY) {
+            // invoke(target, a0 ... an): HANDLE.invokeExact(target, a0 ... an)
+            mv = cw.visitMethod(ACC_PUBLIC, "invoke", invokeDesc, null, null);
+            mv.visitCode();
+            mv.visitFieldInsn(GETSTATIC, className, HANDLE_FIELD, Type.getDescriptor(MethodHandle.class));
+            for (int i = 1; i <= arity + 1; i++) mv.visitVarInsn(ALOAD, i);
+            mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", invokeDesc, false);
+            mv.visitInsn(ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // invokeArgs(target, args): check the length, then HANDLE.invokeExact(target, args[0] ... args[n])
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_VARARGS, "invokeArgs", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        mv.visitCode();
+        Label lengthMatches = new Label();
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARRAYLENGTH);
+        mv.visitIntInsn(SIPUSH, arity);
+        mv.visitJumpInsn(IF_ICMPEQ, lengthMatches);
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn("wrong number of arguments, method takes " + arity);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitLabel(lengthMatches);
+        mv.visitFieldInsn(GETSTATIC, className, HANDLE_FIELD, Type.getDescriptor(MethodHandle.class));
+        mv.visitVarInsn(ALOAD, 1);
+        for (int i = 0; i < arity; i++) {
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitIntInsn(SIPUSH, i);
+            mv.visitInsn(AALOAD);
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact", invokeDesc, false);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static String genericDescriptor(int parameterCount) {
+        return "(" + OBJECT_DESC.repeat(parameterCount) + ")" + OBJECT_DESC;
+    }
+}
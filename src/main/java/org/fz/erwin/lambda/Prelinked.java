@@ -0,0 +1,18 @@
+package org.fz.erwin.lambda;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a class whose accessors are generated at compile time by the erwin-processor annotation processor. The
+ * generated {@link AccessorBundle} is picked up by {@link LambdaMetas} before it falls back to the LambdaMetafactory,
+ * so the first call costs the same as the following ones
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/6 10:30
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Prelinked {
+}
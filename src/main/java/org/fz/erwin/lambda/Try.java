@@ -1,9 +1,13 @@
 package org.fz.erwin.lambda;
 
+import dev.failsafe.*;
 import lombok.experimental.UtilityClass;
 
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.*;
+import java.util.stream.Stream;
 
 /**
  * Use Lambda to handle exceptions gracefully, temporarily provide two implementations
@@ -15,13 +19,50 @@ import java.util.function.*;
 @SuppressWarnings("all")
 public final class Try {
 
+    /**
+     * system property with the initial {@link WrapMode}: full, stackless or sneaky, case is ignored. FULL if the
+     * property is not set or holds anything else
+     */
+    public static final String WRAP_MODE_PROPERTY = "erwin.try.wrap-mode";
+
+    /**
+     * random part of a backoff delay, spreads the retries of callers which failed at the same time
+     */
+    public static final double BACKOFF_JITTER = 0.25;
+
+    private static volatile WrapMode wrapMode = initialWrapMode();
+
+    /**
+     * how the wrappers of this class throw exceptions of the wrapped lambda, for all threads
+     */
+    public static void wrapMode(WrapMode mode) {
+        wrapMode = Objects.requireNonNull(mode, "mode");
+    }
+
+    public static WrapMode wrapMode() {
+        return wrapMode;
+    }
+
+    /**
+     * a typo in the property must not fail the class initialization of Try
+     */
+    private static WrapMode initialWrapMode() {
+        String property = System.getProperty(WRAP_MODE_PROPERTY);
+        if (property == null) return WrapMode.FULL;
+
+        for (WrapMode mode : WrapMode.values()) {
+            if (mode.name().equalsIgnoreCase(property.strip())) return mode;
+        }
+        return WrapMode.FULL;
+    }
+
     public static Runnable run(UncheckedRunnable runnable) {
         Objects.requireNonNull(runnable);
         return () -> {
             try {
                 runnable.run();
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -32,7 +73,7 @@ public final class Try {
             try {
                 return function.apply(t);
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -43,7 +84,7 @@ public final class Try {
             try {
                 return function.apply(t, u);
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -54,7 +95,7 @@ public final class Try {
             try {
                 consumer.accept(t);
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -65,7 +106,7 @@ public final class Try {
             try {
                 consumer.accept(k, v);
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -76,7 +117,7 @@ public final class Try {
             try {
                 return supplier.get();
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
@@ -87,11 +128,131 @@ public final class Try {
             try {
                 return predicate.test(t);
             } catch (Exception e) {
-                throw new LambdasException(e);
+                throw wrap(e);
             }
         };
     }
 
+    /**
+     * runs the supplier and keeps its value or its exception, nothing is thrown
+     * <p>
+     * Example: Try.of(() -> Files.readString(path)).map(JSON::parse).recover(e -> EMPTY)
+     */
+    public static <T> Result<T> of(UncheckedSupplier<T> supplier) {
+        Objects.requireNonNull(supplier);
+        try {
+            return new Success<>(supplier.get());
+        } catch (Exception e) {
+            return new Failure<>(e);
+        }
+    }
+
+    /**
+     * a function returning the result instead of throwing, for streams where some elements are expected to fail
+     * <p>
+     * Example: lines.stream().map(Try.lift(Parser::parse)).collect(Collectors.partitioningBy(Result::isSuccess))
+     */
+    public static <T, R> Function<T, Result<R>> lift(UncheckedFunction<T, R> function) {
+        Objects.requireNonNull(function);
+        return t -> {
+            try {
+                return new Success<>(function.apply(t));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        };
+    }
+
+    /**
+     * runs the supplier through the Failsafe policies of the executor, the first policy is the outermost. Exceptions
+     * of the supplier are thrown as the other wrappers of this class throw them, exceptions of the policies, like
+     * {@link TimeoutExceededException} or {@link CircuitBreakerOpenException}, as they are
+     * <p>
+     * Example: Try.with(Failsafe.with(Try.backoff(3, Duration.ofMillis(50), Duration.ofSeconds(1)), breaker), client::call)
+     */
+    public static <R> Supplier<R> with(FailsafeExecutor<R> executor, UncheckedSupplier<R> supplier) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(supplier);
+        return () -> execute(executor, supplier);
+    }
+
+    public static <T, R> Function<T, R> with(FailsafeExecutor<R> executor, UncheckedFunction<T, R> function) {
+        Objects.requireNonNull(executor);
+        Objects.requireNonNull(function);
+        return t -> execute(executor, () -> function.apply(t));
+    }
+
+    /**
+     * @see #backoff(int, Duration, Duration)
+     */
+    public static <R> Supplier<R> retry(RetryPolicy<R> policy, UncheckedSupplier<R> supplier) {
+        return with(Failsafe.with(policy), supplier);
+    }
+
+    public static <T, R> Function<T, R> retry(RetryPolicy<R> policy, UncheckedFunction<T, R> function) {
+        return with(Failsafe.with(policy), function);
+    }
+
+    /**
+     * retries on any exception, waiting delay before the first retry and twice as long before each further one, up to
+     * maxDelay, every wait randomly {@link #BACKOFF_JITTER} shorter or longer
+     */
+    public static <R> RetryPolicy<R> backoff(int maxRetries, Duration delay, Duration maxDelay) {
+        return RetryPolicy.<R>builder()
+                          .withMaxRetries(maxRetries)
+                          .withBackoff(delay, maxDelay)
+                          .withJitter(BACKOFF_JITTER)
+                          .build();
+    }
+
+    /**
+     * the call is interrupted once it takes longer than the timeout and {@link TimeoutExceededException} is thrown. The
+     * call stays on the calling thread, on a virtual thread waiting for it costs no platform thread
+     */
+    public static <R> Supplier<R> withTimeout(Duration timeout, UncheckedSupplier<R> supplier) {
+        return with(Failsafe.with(Timeout.<R>builder(timeout).withInterrupt().build()), supplier);
+    }
+
+    public static <T, R> Function<T, R> withTimeout(Duration timeout, UncheckedFunction<T, R> function) {
+        return with(Failsafe.with(Timeout.<R>builder(timeout).withInterrupt().build()), function);
+    }
+
+    /**
+     * the breaker keeps its state across calls, share one instance between all callers of the same resource
+     *
+     * @see #breaker(int, Duration)
+     */
+    public static <R> Supplier<R> circuitBreaker(CircuitBreaker<R> breaker, UncheckedSupplier<R> supplier) {
+        return with(Failsafe.with(breaker), supplier);
+    }
+
+    public static <T, R> Function<T, R> circuitBreaker(CircuitBreaker<R> breaker, UncheckedFunction<T, R> function) {
+        return with(Failsafe.with(breaker), function);
+    }
+
+    /**
+     * opens after failureThreshold failures in a row, lets one call through after delay and closes again when it
+     * succeeds. While open, calls fail at once with {@link CircuitBreakerOpenException}
+     */
+    public static <R> CircuitBreaker<R> breaker(int failureThreshold, Duration delay) {
+        return CircuitBreaker.<R>builder()
+                             .withFailureThreshold(failureThreshold)
+                             .withDelay(delay)
+                             .build();
+    }
+
+    private static <R> R execute(FailsafeExecutor<R> executor, UncheckedSupplier<R> supplier) {
+        try {
+            return executor.get(supplier::get);
+        } catch (FailsafeException e) {
+            // Failsafe wraps checked exceptions of the supplier, its own exceptions have no cause
+            if (e.getCause() instanceof Exception cause) throw wrap(cause);
+            throw e;
+        } catch (RuntimeException e) {
+            throw wrap(e);
+        }
+    }
+
     /**
      * Use this method with caution!! Capture, but it can be used in scenarios where only information is printed, and it
      * is not recommended for other scenarios
@@ -115,6 +276,232 @@ public final class Try {
     }
 
 
+    /**
+     * the exception thrown for a failed lambda, in SNEAKY mode the exception itself is thrown
+     */
+    static RuntimeException wrap(Exception exception) {
+        return switch (wrapMode) {
+            case FULL -> new LambdasException(exception);
+            case STACKLESS -> new StacklessLambdasException(exception);
+            case SNEAKY -> sneaky(exception);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> RuntimeException sneaky(Exception exception) throws E {
+        throw (E) exception;
+    }
+
+    /**
+     * the value or the exception of a call, the exception is kept as a value and only thrown by {@link #get()}
+     */
+    public sealed interface Result<T> permits Success, Failure {
+
+        boolean isSuccess();
+
+        default boolean isFailure() {
+            return !isSuccess();
+        }
+
+        /**
+         * the value, or the exception thrown as the wrappers of {@link Try} throw it, see {@link WrapMode}
+         */
+        T get();
+
+        T getOrElse(T other);
+
+        T getOrElseGet(Function<? super Exception, ? extends T> other);
+
+        /**
+         * the exception of a failure, null for a success
+         */
+        Exception exception();
+
+        /**
+         * a failing mapper turns a success into a failure
+         */
+        <R> Result<R> map(UncheckedFunction<? super T, ? extends R> mapper);
+
+        <R> Result<R> flatMap(UncheckedFunction<? super T, Result<R>> mapper);
+
+        /**
+         * turns a failure into a success, a failing recovery gives a failure with its own exception
+         */
+        Result<T> recover(UncheckedFunction<? super Exception, ? extends T> recovery);
+
+        Result<T> onSuccess(Consumer<? super T> action);
+
+        Result<T> onFailure(Consumer<? super Exception> action);
+
+        Optional<T> toOptional();
+
+        /**
+         * the value as a stream of one, a failure gives an empty stream, for stream.flatMap(Result::stream)
+         */
+        Stream<T> stream();
+    }
+
+    public record Success<T>(T value) implements Result<T> {
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public T get() {
+            return value;
+        }
+
+        @Override
+        public T getOrElse(T other) {
+            return value;
+        }
+
+        @Override
+        public T getOrElseGet(Function<? super Exception, ? extends T> other) {
+            return value;
+        }
+
+        @Override
+        public Exception exception() {
+            return null;
+        }
+
+        @Override
+        public <R> Result<R> map(UncheckedFunction<? super T, ? extends R> mapper) {
+            Objects.requireNonNull(mapper);
+            try {
+                return new Success<>(mapper.apply(value));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
+
+        @Override
+        public <R> Result<R> flatMap(UncheckedFunction<? super T, Result<R>> mapper) {
+            Objects.requireNonNull(mapper);
+            try {
+                return Objects.requireNonNull(mapper.apply(value), "result");
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
+
+        @Override
+        public Result<T> recover(UncheckedFunction<? super Exception, ? extends T> recovery) {
+            return this;
+        }
+
+        @Override
+        public Result<T> onSuccess(Consumer<? super T> action) {
+            action.accept(value);
+            return this;
+        }
+
+        @Override
+        public Result<T> onFailure(Consumer<? super Exception> action) {
+            return this;
+        }
+
+        @Override
+        public Optional<T> toOptional() {
+            return Optional.ofNullable(value);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return Stream.of(value);
+        }
+    }
+
+    public record Failure<T>(Exception exception) implements Result<T> {
+
+        public Failure {
+            Objects.requireNonNull(exception, "exception");
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public T get() {
+            throw wrap(exception);
+        }
+
+        @Override
+        public T getOrElse(T other) {
+            return other;
+        }
+
+        @Override
+        public T getOrElseGet(Function<? super Exception, ? extends T> other) {
+            return other.apply(exception);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> Result<R> map(UncheckedFunction<? super T, ? extends R> mapper) {
+            return (Result<R>) this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <R> Result<R> flatMap(UncheckedFunction<? super T, Result<R>> mapper) {
+            return (Result<R>) this;
+        }
+
+        @Override
+        public Result<T> recover(UncheckedFunction<? super Exception, ? extends T> recovery) {
+            Objects.requireNonNull(recovery);
+            try {
+                return new Success<>(recovery.apply(exception));
+            } catch (Exception e) {
+                return new Failure<>(e);
+            }
+        }
+
+        @Override
+        public Result<T> onSuccess(Consumer<? super T> action) {
+            return this;
+        }
+
+        @Override
+        public Result<T> onFailure(Consumer<? super Exception> action) {
+            action.accept(exception);
+            return this;
+        }
+
+        @Override
+        public Optional<T> toOptional() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return Stream.empty();
+        }
+    }
+
+    public enum WrapMode {
+        /**
+         * a LambdasException with the stack trace of the wrapper, the default
+         */
+        FULL,
+        /**
+         * a LambdasException without a stack trace of its own and without suppressed exceptions. The stack trace of
+         * the cause is still there, use this where failures are expected and wrapping costs more than the failing work
+         */
+        STACKLESS,
+        /**
+         * no wrapping, the checked exception is thrown as it is although the functional interface does not declare it.
+         * Callers can only catch it as Exception
+         */
+        SNEAKY
+    }
+
     @FunctionalInterface
     public interface UncheckedConsumer<T> {
 
@@ -176,4 +563,21 @@ public final class Try {
             super(message, cause, enableSuppression, writableStackTrace);
         }
     }
+
+    /**
+     * the message is only built when someone asks for it
+     */
+    private static final class StacklessLambdasException extends LambdasException {
+
+        private static final long serialVersionUID = 1L;
+
+        StacklessLambdasException(Throwable cause) {
+            super(null, cause, false, false);
+        }
+
+        @Override
+        public String getMessage() {
+            return getCause().toString();
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package org.fz.erwin.stream;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forks of a DoubleStream, every fork reads a DoubleStream of its own without boxing a single value
+ * <p>
+ * Example: DoubleStreamForks.of(readings).fork("max", DoubleStream::max).fork("sum", DoubleStream::sum).done().get("sum")
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/12 10:15
+ */
+public class DoubleStreamForks extends PrimitiveStreamForks<double[], DoubleStream, DoubleStreamForks> {
+
+    public DoubleStreamForks(DoubleStream stream) {
+        super(stream);
+    }
+
+    public static DoubleStreamForks of(double... values) {
+        return new DoubleStreamForks(Arrays.stream(values));
+    }
+
+    @Override
+    Spliterator<double[]> chunk(Spliterator<?> source, int chunkSize) {
+        return new ChunkSpliterator((Spliterator.OfDouble) source, chunkSize);
+    }
+
+    @Override
+    DoubleStream unchunk(Spliterator<double[]> chunks) {
+        return StreamSupport.doubleStream(new ValueSpliterator(chunks), false);
+    }
+
+    /**
+     * copies the source values into new arrays, the arrays are shared by the forks and never written again
+     */
+    static final class ChunkSpliterator implements Spliterator<double[]>, DoubleConsumer {
+
+        private final Spliterator.OfDouble source;
+        private final int                  chunkSize;
+        private       double[]             chunk;
+        private       int                  size;
+
+        ChunkSpliterator(Spliterator.OfDouble source, int chunkSize) {
+            this.source    = source;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(double value) {
+            chunk[size++] = value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super double[]> action) {
+            chunk = new double[chunkSize];
+            size  = 0;
+            while (size < chunkSize) {
+                if (!source.tryAdvance((DoubleConsumer) this)) break;
+            }
+            if (size == 0) return false;
+
+            action.accept(size == chunkSize ? chunk : Arrays.copyOf(chunk, size));
+            return true;
+        }
+
+        @Override
+        public Spliterator<double[]> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    static final class ValueSpliterator implements Spliterator.OfDouble {
+
+        private final Spliterator<double[]> chunks;
+        private       double[]              chunk;
+        private       int                   index;
+
+        ValueSpliterator(Spliterator<double[]> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            while (chunk == null || index == chunk.length) {
+                if (!chunks.tryAdvance(next -> chunk = next)) return false;
+                index = 0;
+            }
+            action.accept(chunk[index++]);
+            return true;
+        }
+
+        /**
+         * a whole chunk per call to the fork queue
+         */
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            if (chunk != null) {
+                while (index < chunk.length) action.accept(chunk[index++]);
+            }
+            chunks.forEachRemaining(next -> {
+                for (double value : next) action.accept(value);
+            });
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
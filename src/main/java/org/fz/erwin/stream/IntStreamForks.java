@@ -0,0 +1,136 @@
+package org.fz.erwin.stream;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forks of an IntStream, every fork reads an IntStream of its own without boxing a single value
+ * <p>
+ * Example: IntStreamForks.of(readings).fork("max", IntStream::max).fork("sum", IntStream::sum).done().get("sum")
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/12 10:15
+ */
+public class IntStreamForks extends PrimitiveStreamForks<int[], IntStream, IntStreamForks> {
+
+    public IntStreamForks(IntStream stream) {
+        super(stream);
+    }
+
+    public static IntStreamForks of(int... values) {
+        return new IntStreamForks(Arrays.stream(values));
+    }
+
+    @Override
+    Spliterator<int[]> chunk(Spliterator<?> source, int chunkSize) {
+        return new ChunkSpliterator((Spliterator.OfInt) source, chunkSize);
+    }
+
+    @Override
+    IntStream unchunk(Spliterator<int[]> chunks) {
+        return StreamSupport.intStream(new ValueSpliterator(chunks), false);
+    }
+
+    /**
+     * copies the source values into new arrays, the arrays are shared by the forks and never written again
+     */
+    static final class ChunkSpliterator implements Spliterator<int[]>, IntConsumer {
+
+        private final Spliterator.OfInt source;
+        private final int               chunkSize;
+        private       int[]             chunk;
+        private       int               size;
+
+        ChunkSpliterator(Spliterator.OfInt source, int chunkSize) {
+            this.source    = source;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(int value) {
+            chunk[size++] = value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            chunk = new int[chunkSize];
+            size  = 0;
+            while (size < chunkSize) {
+                if (!source.tryAdvance((IntConsumer) this)) break;
+            }
+            if (size == 0) return false;
+
+            action.accept(size == chunkSize ? chunk : Arrays.copyOf(chunk, size));
+            return true;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    static final class ValueSpliterator implements Spliterator.OfInt {
+
+        private final Spliterator<int[]> chunks;
+        private       int[]              chunk;
+        private       int                index;
+
+        ValueSpliterator(Spliterator<int[]> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (chunk == null || index == chunk.length) {
+                if (!chunks.tryAdvance(next -> chunk = next)) return false;
+                index = 0;
+            }
+            action.accept(chunk[index++]);
+            return true;
+        }
+
+        /**
+         * a whole chunk per call to the fork queue
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            if (chunk != null) {
+                while (index < chunk.length) action.accept(chunk[index++]);
+            }
+            chunks.forEachRemaining(next -> {
+                for (int value : next) action.accept(value);
+            });
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
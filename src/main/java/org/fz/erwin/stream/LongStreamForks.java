@@ -0,0 +1,136 @@
+package org.fz.erwin.stream;
+
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forks of a LongStream, every fork reads a LongStream of its own without boxing a single value
+ * <p>
+ * Example: LongStreamForks.of(readings).fork("max", LongStream::max).fork("sum", LongStream::sum).done().get("sum")
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/12 10:15
+ */
+public class LongStreamForks extends PrimitiveStreamForks<long[], LongStream, LongStreamForks> {
+
+    public LongStreamForks(LongStream stream) {
+        super(stream);
+    }
+
+    public static LongStreamForks of(long... values) {
+        return new LongStreamForks(Arrays.stream(values));
+    }
+
+    @Override
+    Spliterator<long[]> chunk(Spliterator<?> source, int chunkSize) {
+        return new ChunkSpliterator((Spliterator.OfLong) source, chunkSize);
+    }
+
+    @Override
+    LongStream unchunk(Spliterator<long[]> chunks) {
+        return StreamSupport.longStream(new ValueSpliterator(chunks), false);
+    }
+
+    /**
+     * copies the source values into new arrays, the arrays are shared by the forks and never written again
+     */
+    static final class ChunkSpliterator implements Spliterator<long[]>, LongConsumer {
+
+        private final Spliterator.OfLong source;
+        private final int                chunkSize;
+        private       long[]             chunk;
+        private       int                size;
+
+        ChunkSpliterator(Spliterator.OfLong source, int chunkSize) {
+            this.source    = source;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void accept(long value) {
+            chunk[size++] = value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super long[]> action) {
+            chunk = new long[chunkSize];
+            size  = 0;
+            while (size < chunkSize) {
+                if (!source.tryAdvance((LongConsumer) this)) break;
+            }
+            if (size == 0) return false;
+
+            action.accept(size == chunkSize ? chunk : Arrays.copyOf(chunk, size));
+            return true;
+        }
+
+        @Override
+        public Spliterator<long[]> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    static final class ValueSpliterator implements Spliterator.OfLong {
+
+        private final Spliterator<long[]> chunks;
+        private       long[]              chunk;
+        private       int                 index;
+
+        ValueSpliterator(Spliterator<long[]> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (chunk == null || index == chunk.length) {
+                if (!chunks.tryAdvance(next -> chunk = next)) return false;
+                index = 0;
+            }
+            action.accept(chunk[index++]);
+            return true;
+        }
+
+        /**
+         * a whole chunk per call to the fork queue
+         */
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            if (chunk != null) {
+                while (index < chunk.length) action.accept(chunk[index++]);
+            }
+            chunks.forEachRemaining(next -> {
+                for (long value : next) action.accept(value);
+            });
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
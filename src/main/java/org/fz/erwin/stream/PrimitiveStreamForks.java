@@ -0,0 +1,216 @@
+package org.fz.erwin.stream;
+
+import org.fz.erwin.stream.StreamForks.Backpressure;
+import org.fz.erwin.stream.StreamForks.ForkMetrics;
+import org.fz.erwin.stream.StreamForks.ForkResult;
+import org.fz.erwin.stream.StreamForks.Metrics;
+import org.fz.erwin.stream.StreamForks.MetricsListener;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forks of a primitive stream. The values are copied into primitive arrays of chunkSize, the chunks go through a
+ * {@link StreamForks} and every fork reads them back as a primitive stream, so no value is ever boxed
+ * <p>
+ * Capacity, depths, drops and metrics count values, like those of a boxed {@link StreamForks}. They are tracked per
+ * chunk though, so they move in steps of chunkSize and a short last chunk counts as a whole one. The ring buffer size
+ * counts chunks
+ *
+ * @param <A> the primitive array type of a chunk
+ * @param <S> the primitive stream type
+ * @param <F> the concrete forks type, returned by the builder methods
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/12 10:15
+ */
+@SuppressWarnings("unchecked")
+public abstract class PrimitiveStreamForks<A, S extends BaseStream<?, S>, F extends PrimitiveStreamForks<A, S, F>> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final S                           stream;
+    private final Map<Object, Function<S, ?>> forks        = new LinkedHashMap<>(16);
+    private       int                         chunkSize    = DEFAULT_CHUNK_SIZE;
+    private       int                         capacity     = StreamForks.UNBOUNDED;
+    private       Backpressure                backpressure = Backpressure.BLOCK;
+    private       int                         ringSize;
+    private       Executor                    executor;
+    private       MetricsListener             listener;
+    private       Duration                    interval;
+
+    PrimitiveStreamForks(S stream) {
+        this.stream = stream;
+    }
+
+    public F fork(Object key, Function<S, ?> fn) {
+        forks.put(key, fn);
+        return (F) this;
+    }
+
+    /**
+     * values per chunk, one chunk is published to all forks at once
+     */
+    public F chunkSize(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunk size must be positive, but was: " + chunkSize);
+
+        this.chunkSize = chunkSize;
+        return (F) this;
+    }
+
+    /**
+     * @see StreamForks#capacity(int, Backpressure)
+     */
+    public F capacity(int capacity, Backpressure backpressure) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive, but was: " + capacity);
+
+        this.capacity     = capacity;
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
+        return (F) this;
+    }
+
+    /**
+     * @param size chunks in the ring, a power of 2
+     * @see StreamForks#ringBuffer(int)
+     */
+    public F ringBuffer(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) throw new IllegalArgumentException("ring buffer size must be a power of 2, but was: " + size);
+
+        this.ringSize = size;
+        return (F) this;
+    }
+
+    /**
+     * @see StreamForks#executor(Executor)
+     */
+    public F executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return (F) this;
+    }
+
+    public F virtualThreads() {
+        return executor(StreamForks.VIRTUAL_THREADS);
+    }
+
+    /**
+     * @see StreamForks#metrics(MetricsListener, Duration)
+     */
+    public F metrics(MetricsListener listener, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("interval must be positive, but was: " + interval);
+
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.interval = interval;
+        return (F) this;
+    }
+
+    public ForkResult done() {
+        return new ValueForkResult(chunked().done(), chunkSize);
+    }
+
+    /**
+     * @see StreamForks#doneAsync()
+     */
+    public CompletableFuture<ForkResult> doneAsync() {
+        CompletableFuture<ForkResult> chunks = chunked().doneAsync();
+        CompletableFuture<ForkResult> values = chunks.thenApply(result -> new ValueForkResult(result, chunkSize));
+        values.whenComplete((result, throwable) -> {
+            if (throwable instanceof CancellationException) chunks.cancel(true);
+        });
+        return values;
+    }
+
+    private StreamForks<A> chunked() {
+        Stream<A> chunks   = StreamSupport.stream(chunk(stream.spliterator(), chunkSize), false).onClose(stream::close);
+        LongAdder produced = new LongAdder();
+        if (listener != null) chunks = chunks.peek(chunk -> produced.add(Array.getLength(chunk)));
+
+        StreamForks<A> forked = new StreamForks<>(chunks);
+
+        if (capacity != StreamForks.UNBOUNDED) forked.capacity(Math.max(1, capacity / chunkSize), backpressure);
+        if (ringSize > 0) forked.ringBuffer(ringSize);
+        if (executor != null) forked.executor(executor);
+        if (listener != null) forked.metrics(metrics -> listener.report(inValues(metrics, chunkSize, produced.sum())), interval);
+
+        forks.forEach((key, fn) -> forked.fork(key, s -> fn.apply(unchunk(s.spliterator()))));
+        return forked;
+    }
+
+    /**
+     * the chunk metrics in values, the values produced are counted exactly and bound the chunk counters
+     */
+    private static Metrics inValues(Metrics chunks, int chunkSize, long produced) {
+        List<ForkMetrics> forks = new ArrayList<>(chunks.forks().size());
+        for (ForkMetrics fork : chunks.forks()) {
+            forks.add(new ForkMetrics(fork.key(), Math.min(produced, fork.consumed() * chunkSize),
+                                      values(fork.depth(), chunkSize), values(fork.peakDepth(), chunkSize),
+                                      Math.min(produced, fork.dropped() * chunkSize), fork.blockedNanos(), fork.producerBlockedNanos()));
+        }
+        return new Metrics(produced, chunks.producerBlockedNanos(), chunks.finished(), forks);
+    }
+
+    private static int values(int chunks, int chunkSize) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) chunks * chunkSize);
+    }
+
+    /**
+     * cuts the values of the source into arrays of chunkSize, the last one holds the rest
+     */
+    abstract Spliterator<A> chunk(Spliterator<?> source, int chunkSize);
+
+    /**
+     * the values of the chunks as a sequential primitive stream
+     */
+    abstract S unchunk(Spliterator<A> chunks);
+
+    /**
+     * the result of the chunk forks with the queue counters in values
+     */
+    private record ValueForkResult(ForkResult chunks, int chunkSize) implements ForkResult {
+
+        @Override
+        public <R> R get(Object key) {
+            return chunks.get(key);
+        }
+
+        @Override
+        public <R> R get(Object key, long timeout, TimeUnit unit) throws TimeoutException {
+            return chunks.get(key, timeout, unit);
+        }
+
+        @Override
+        public <R> CompletableFuture<R> future(Object key) {
+            return chunks.future(key);
+        }
+
+        @Override
+        public void cancel() {
+            chunks.cancel();
+        }
+
+        @Override
+        public int depth(Object key) {
+            return values(chunks.depth(key), chunkSize);
+        }
+
+        @Override
+        public int peakDepth(Object key) {
+            return values(chunks.peakDepth(key), chunkSize);
+        }
+
+        @Override
+        public long dropped(Object key) {
+            return chunks.dropped(key) * chunkSize;
+        }
+    }
+}
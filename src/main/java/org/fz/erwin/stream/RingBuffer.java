@@ -0,0 +1,313 @@
+package org.fz.erwin.stream;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Single producer, multi consumer ring buffer behind {@link StreamForks#ringBuffer(int)}. The producer writes every
+ * element once into a pre allocated slot and moves the cursor, every reader follows the cursor with its own sequence.
+ * The producer only waits when it would overwrite a slot the slowest reader has not read yet
+ * <p>
+ * A read slot keeps its element until the producer wraps around and overwrites it, so up to size consumed elements
+ * stay reachable while the forks run. Once the producer and every fork are done the slots are cleared, a fork
+ * cancelled before its task started counts as done when its future completes
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/10 09:40
+ */
+final class RingBuffer {
+
+    private static final VarHandle CURSOR, SEQUENCE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CURSOR   = lookup.findVarHandle(RingBuffer.class, "cursor", long.class);
+            SEQUENCE = lookup.findVarHandle(Reader.class, "sequence", long.class);
+        }
+        catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int  SPIN_TRIES  = 100;
+    private static final int  YIELD_TRIES = 100;
+    private static final long PARK_NANOS  = 50_000;
+
+    private final Object[] slots;
+    private final int      mask;
+    private final Reader[] readers;
+
+    /**
+     * the producer plus the forks still reading, the last one to leave clears the slots
+     */
+    private final AtomicInteger open;
+
+    /**
+     * last published sequence, only written by the producer
+     */
+    private volatile long cursor = -1;
+    /**
+     * sequence after the last element, set once the producer has finished
+     */
+    private volatile long end    = Long.MAX_VALUE;
+
+    /**
+     * producer only: the next sequence to write and the slowest reader sequence seen last time
+     */
+    private long next;
+    private long gate = -1;
+
+    /**
+     * time the producer waited for the slowest reader, only written by the producer
+     */
+    private volatile long blockedNanos;
+
+    RingBuffer(int size, int readers) {
+        if (Integer.bitCount(size) != 1) throw new IllegalArgumentException("ring buffer size must be a power of 2, but was: " + size);
+
+        this.slots   = new Object[size];
+        this.mask    = size - 1;
+        this.readers = new Reader[readers];
+        for (int i = 0; i < readers; i++) this.readers[i] = new Reader();
+        this.open = new AtomicInteger(readers + 1);
+    }
+
+    Reader reader(int index) {
+        return readers[index];
+    }
+
+    void publish(Object element) {
+        long wrap = next - slots.length;
+        if (wrap > gate) gate = awaitReaders(wrap);
+
+        slots[(int) next & mask] = element;
+        CURSOR.setRelease(this, next++);
+    }
+
+    void finish() {
+        end = next;
+        release();
+    }
+
+    /**
+     * called once by the producer after its last publish, and once per reader through {@link #leave} or
+     * {@link #abandon}
+     */
+    void release() {
+        if (open.decrementAndGet() == 0) Arrays.fill(slots, null);
+    }
+
+    /**
+     * the fork task starts reading, false if its fork completed before, the task must then not touch the ring
+     */
+    boolean enter(Reader reader) {
+        return reader.state.compareAndSet(Reader.IDLE, Reader.READING);
+    }
+
+    /**
+     * the fork task stopped reading
+     */
+    void leave(Reader reader) {
+        reader.state.set(Reader.DONE);
+        release();
+    }
+
+    /**
+     * the future of the fork completed, releases the reader if its task never started. A task which did start may
+     * still be reading after a cancel and releases the reader itself
+     */
+    void abandon(Reader reader) {
+        if (reader.state.compareAndSet(Reader.IDLE, Reader.DONE)) release();
+    }
+
+    long blockedNanos() {
+        return blockedNanos;
+    }
+
+    long consumed(Reader reader) {
+        return (long) SEQUENCE.getAcquire(reader) + 1;
+    }
+
+    /**
+     * elements published but not read yet by the reader
+     */
+    int lag(Reader reader) {
+        return (int) ((long) CURSOR.getAcquire(this) - (long) SEQUENCE.getAcquire(reader));
+    }
+
+    /**
+     * waits until every attached reader is past the wrap point, readers whose fork is done are detached
+     *
+     * @return the sequence of the slowest attached reader
+     */
+    private long awaitReaders(long wrap) {
+        long start = System.nanoTime();
+        try {
+            return awaitSlowest(wrap);
+        }
+        finally {
+            blockedNanos += System.nanoTime() - start;
+        }
+    }
+
+    private long awaitSlowest(long wrap) {
+        for (int tries = 0; ; tries++) {
+            long min = Long.MAX_VALUE;
+            for (Reader reader : readers) {
+                if (reader.detached) continue;
+
+                long sequence = (long) SEQUENCE.getAcquire(reader);
+                if (sequence < wrap && reader.future.isDone()) {
+                    reader.detached = true;
+                    continue;
+                }
+
+                reader.peakLag = Math.max(reader.peakLag, (int) (next - 1 - sequence));
+                min            = Math.min(min, sequence);
+            }
+            if (min >= wrap) return min;
+
+            idle(tries);
+        }
+    }
+
+    private static void idle(int tries) {
+        if (tries < SPIN_TRIES) Thread.onSpinWait();
+        else if (tries < SPIN_TRIES + YIELD_TRIES) Thread.yield();
+        else LockSupport.parkNanos(PARK_NANOS);
+    }
+
+    /**
+     * the read side of one fork, padded so the sequences of two readers do not share a cache line
+     */
+    @SuppressWarnings("unused")
+    static final class Reader {
+
+        private static final int IDLE = 0, READING = 1, DONE = 2;
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+
+        /**
+         * last sequence the fork has read
+         */
+        private volatile long sequence = -1;
+
+        private long q1, q2, q3, q4, q5, q6, q7;
+
+        /**
+         * set when the result is cancelled, the reader then stops at once
+         */
+        volatile boolean cancelled;
+
+        /**
+         * IDLE until the fork task starts, DONE once the reader released the ring
+         */
+        final AtomicInteger state = new AtomicInteger(IDLE);
+
+        /**
+         * producer only
+         */
+        Future<?> future;
+        boolean   detached;
+        int       peakLag;
+    }
+
+    /**
+     * stream source of one fork, reads every published slot once and stops at the end of the ring
+     */
+    @SuppressWarnings("unchecked")
+    final class ReaderSpliterator<T> implements Spliterator<T> {
+
+        private final Reader                reader;
+        private final StreamForks.ForkStats stats;
+        private final long                  size;
+        private final int                   characteristics;
+
+        /**
+         * @param stats           gets the time spent waiting for the producer, null to measure nothing
+         * @param size            exact number of elements the producer will publish, -1 if unknown
+         * @param characteristics of the source, SIZED is added when the size is known
+         */
+        ReaderSpliterator(Reader reader, StreamForks.ForkStats stats, long size, int characteristics) {
+            this.reader          = reader;
+            this.stats           = stats;
+            this.size            = size;
+            this.characteristics = size < 0 ? characteristics | ORDERED : characteristics | ORDERED | SIZED | SUBSIZED;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            long sequence = (long) SEQUENCE.getOpaque(reader) + 1;
+            if (awaitCursor(sequence) < sequence) return false;
+
+            T element = (T) slots[(int) sequence & mask];
+            SEQUENCE.setRelease(reader, sequence);
+            action.accept(element);
+            return true;
+        }
+
+        /**
+         * consumes everything published so far in one go and only then tells the producer
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            long sequence = (long) SEQUENCE.getOpaque(reader) + 1;
+            for (long available; (available = awaitCursor(sequence)) >= sequence; sequence = available + 1) {
+                for (long i = sequence; i <= available; i++) action.accept((T) slots[(int) i & mask]);
+                SEQUENCE.setRelease(reader, available);
+            }
+        }
+
+        /**
+         * @return the highest published sequence, smaller than the given one once the ring has ended
+         */
+        private long awaitCursor(long sequence) {
+            long available = (long) CURSOR.getAcquire(RingBuffer.this);
+            if (available >= sequence) return available;
+            if (stats == null) return awaitProducer(sequence);
+
+            long start = System.nanoTime();
+            try {
+                return awaitProducer(sequence);
+            }
+            finally {
+                stats.blockedNanos += System.nanoTime() - start;
+            }
+        }
+
+        private long awaitProducer(long sequence) {
+            for (int tries = 0; ; tries++) {
+                if (reader.cancelled) return sequence - 1;
+
+                long available = (long) CURSOR.getAcquire(RingBuffer.this);
+                if (available >= sequence) return available;
+                if (sequence >= end) return sequence - 1;
+
+                idle(tries);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return size < 0 ? Long.MAX_VALUE : size - consumed(reader);
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+    }
+}
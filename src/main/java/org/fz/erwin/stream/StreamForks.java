@@ -1,27 +1,64 @@
 package org.fz.erwin.stream;
 
+import java.io.PrintStream;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
+ * Feeds one stream to several forks, every fork gets its own queue and reads it as a stream in another thread
+ * <p>
+ * Example: StreamForks.of(list).capacity(1024, Backpressure.BLOCK).fork("count", Stream::count).done().get("count")
+ *
  * @author fengbinbin
  * @version 1.0
  * @since 2020/7/20 15:31
  */
 public class StreamForks<T> {
 
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * starts one virtual thread per fork, a fork blocked on its queue then costs no platform thread
+     */
+    public static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("stream-fork").start(task);
+
+    /**
+     * characteristics of a sequential source which still hold in every fork
+     */
+    private static final int FORKED_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
     private final Stream<T>                           stream;
-    private final Map<Object, Function<Stream<T>, ?>> forks = new HashMap<>(16);
+    // wakes up a producer blocked on a push based source, null for pull based sources
+    private final Runnable                            interrupter;
+    private final Map<Object, Function<Stream<T>, ?>> forks        = new HashMap<>(16);
+    private final Map<Object, Collector<? super T, ?, ?>> collectors = new LinkedHashMap<>(16);
+    private       int                                 capacity     = UNBOUNDED;
+    private       Backpressure                        backpressure = Backpressure.BLOCK;
+    private       int                                 batchSize    = 1;
+    private       int                                 ringSize;
+    private       int                                 producers    = 1;
+    // the common pool, or a thread per task when the common pool has fewer than 2 threads
+    private       Executor                            executor     = new CompletableFuture<>().defaultExecutor();
+    private       MetricsListener                     listener;
+    private       Duration                            interval;
 
     public StreamForks(Stream<T> stream) {
-        this.stream = stream;
+        this(stream, null);
+    }
+
+    private StreamForks(Stream<T> stream, Runnable interrupter) {
+        this.stream      = stream;
+        this.interrupter = interrupter;
     }
 
     public static <T> StreamForks<T> of(Collection<T> collection) {
@@ -32,44 +69,354 @@ public class StreamForks<T> {
         return new StreamForks<>(Stream.of(array));
     }
 
+    /**
+     * forks of a push based source, see {@link #from(Flow.Publisher, int)}
+     */
+    public static <T> StreamForks<T> from(Flow.Publisher<? extends T> publisher) {
+        return from(publisher, Flow.defaultBufferSize());
+    }
+
+    /**
+     * forks of a push based source. The publisher is subscribed to at once but asked for elements only when the
+     * forks start, never for more than prefetch elements ahead of the producer, so a slow fork slows the publisher
+     * down instead of filling the memory. The subscription is cancelled when the producer stops early: on cancel, on
+     * the first failure or once every fork is done, even while the publisher is idle. Use {@link #doneAsync()} for a
+     * publisher which never completes
+     *
+     * @param prefetch max elements requested and not yet read
+     */
+    public static <T> StreamForks<T> from(Flow.Publisher<? extends T> publisher, int prefetch) {
+        if (prefetch <= 0) throw new IllegalArgumentException("prefetch must be positive, but was: " + prefetch);
+
+        SubscriberSpliterator<T> subscriber = new SubscriberSpliterator<>(prefetch);
+        publisher.subscribe(subscriber);
+        return new StreamForks<>(StreamSupport.stream(subscriber, false).onClose(subscriber::cancel), subscriber::cancel);
+    }
+
+    /**
+     * a fork which needs the elements as a stream, it gets a queue and a thread of its own
+     */
     public StreamForks<T> fork(Object key, Function<Stream<T>, ?> fn) {
+        collectors.remove(key);
         forks.put(key, fn);
         return this;
     }
 
+    /**
+     * a fork which is just a collector. All collector forks are accumulated in the thread reading the source, in the
+     * same pass, without queue or thread. In parallel mode every producer accumulates into its own container and the
+     * containers are combined at the end
+     * <p>
+     * Example: StreamForks.of(list).fork("count", Collectors.counting()).fork("byType", Collectors.groupingBy(Item::type))
+     */
+    public StreamForks<T> fork(Object key, Collector<? super T, ?, ?> collector) {
+        forks.remove(key);
+        collectors.put(key, Objects.requireNonNull(collector, "collector"));
+        return this;
+    }
+
+    /**
+     * bound the queue of every fork, so a slow fork can not make the queue grow until the heap runs out
+     *
+     * @param capacity     max elements waiting in the queue of one fork
+     * @param backpressure what the producer does when the queue of a fork is full
+     */
+    public StreamForks<T> capacity(int capacity, Backpressure backpressure) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive, but was: " + capacity);
+
+        this.capacity     = capacity;
+        this.backpressure = Objects.requireNonNull(backpressure, "backpressure");
+        return this;
+    }
+
+    /**
+     * hand elements over in chunks of batchSize instead of one by one, one chunk is shared by all forks. Pays off
+     * when the elements are small and cheap to process, the queue is then the main cost. The capacity still counts
+     * elements and is rounded down to whole chunks
+     */
+    public StreamForks<T> batch(int batchSize) {
+        if (batchSize <= 0) throw new IllegalArgumentException("batch size must be positive, but was: " + batchSize);
+
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * use one shared ring buffer of the given size (a power of 2) instead of a queue per fork. Every element is
+     * written once, each fork reads it with its own cursor, the producer only waits for the slowest fork. The ring
+     * always blocks the producer, so it does not go together with a backpressure other than BLOCK, nor with batch
+     */
+    public StreamForks<T> ringBuffer(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) throw new IllegalArgumentException("ring buffer size must be a power of 2, but was: " + size);
+
+        this.ringSize = size;
+        return this;
+    }
+
+    /**
+     * the executor running the forks, each fork occupies one thread until the source ends. Defaults to the common
+     * pool, where blocked forks take threads away from parallel streams and can starve each other when there are
+     * more forks than pool threads, see {@link #VIRTUAL_THREADS}
+     */
+    public StreamForks<T> executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
+    /**
+     * run every fork in its own virtual thread
+     */
+    public StreamForks<T> virtualThreads() {
+        return executor(VIRTUAL_THREADS);
+    }
+
+    /**
+     * read the source with as many threads as there are processors, see {@link #parallel(int)}
+     */
+    public StreamForks<T> parallel() {
+        return parallel(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * split the source and read the pieces in parallel, each piece is published to the forks by its own thread. The
+     * forks then see the elements in no particular order. Pays off when the producer is the bottleneck, a big list or
+     * array read in batch mode for example. Does not go together with the ring buffer, which has a single producer
+     *
+     * @param producers max number of threads reading the source, the calling thread is one of them
+     */
+    public StreamForks<T> parallel(int producers) {
+        if (producers <= 0) throw new IllegalArgumentException("producers must be positive, but was: " + producers);
+
+        this.producers = producers;
+        return this;
+    }
+
+    /**
+     * report the metrics of every fork to the listener each interval while the forks run, and once more when all of
+     * them are done. Without a listener nothing is counted
+     * <p>
+     * Example: forks.metrics(MetricsListener.print(System.err), Duration.ofSeconds(5))
+     */
+    public StreamForks<T> metrics(MetricsListener listener, Duration interval) {
+        if (interval.isNegative() || interval.isZero()) throw new IllegalArgumentException("interval must be positive, but was: " + interval);
+
+        this.listener = Objects.requireNonNull(listener, "listener");
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * reads the whole source, or until every fork is done
+     *
+     * @throws RuntimeException the first failure of the source or of any fork, later failures are suppressed in it
+     */
     public ForkResult done() {
-        ForkingStreamConsumer<T> consumer = build();
+        Spliterator<T>           source   = source();
+        ForkingStreamConsumer<T> consumer = build(source);
+        produce(consumer, source);
+
+        consumer.rethrow();
+        return consumer;
+    }
+
+    /**
+     * {@link #done()} without blocking the calling thread, the source is read by a virtual thread
+     */
+    public CompletableFuture<ForkResult> doneAsync() {
+        return doneAsync(VIRTUAL_THREADS);
+    }
+
+    /**
+     * {@link #done()} without blocking the calling thread. The future completes once the source is read, with the
+     * first failure if there is one, the fork results then complete on their own, see {@link ForkResult#future}.
+     * Cancelling the future cancels the forks
+     * <p>
+     * Example: forks.doneAsync().thenCompose(result -> result.future("sum"))
+     *
+     * @param producer runs the thread reading the source, it must not share threads with the forks when the queues
+     *                 are bounded
+     */
+    public CompletableFuture<ForkResult> doneAsync(Executor producer) {
+        Spliterator<T>                source   = source();
+        ForkingStreamConsumer<T>      consumer = build(source);
+        CompletableFuture<ForkResult> result   = new CompletableFuture<>();
+        result.whenComplete((done, throwable) -> {
+            if (throwable instanceof CancellationException) consumer.cancel();
+        });
+
+        try {
+            producer.execute(() -> {
+                produce(consumer, source);
+
+                Throwable failure = consumer.failure();
+                if (failure == null) result.complete(consumer);
+                else result.completeExceptionally(failure);
+            });
+        }
+        catch (RejectedExecutionException exception) {
+            consumer.cancel();
+            throw exception;
+        }
+        return result;
+    }
+
+    /**
+     * the sequential source, null when several producers split the source later
+     */
+    private Spliterator<T> source() {
+        return producers > 1 ? null : stream.sequential().spliterator();
+    }
 
+    private void produce(ForkingStreamConsumer<T> consumer, Spliterator<T> source) {
         try {
-            stream.sequential().forEach(consumer);
+            if (source == null) produceParallel(consumer);
+            else consumer.drain(source, consumer.producer);
+        }
+        catch (Throwable throwable) {
+            consumer.fail(throwable);
         }
         finally {
+            close(consumer);
             consumer.finish();
         }
-        return consumer;
     }
 
-    private ForkingStreamConsumer<T> build() {
-        List<BlockingQueue<T>> queues = new ArrayList<>(10);
+    /**
+     * runs the close handlers of the source, the subscription to a publisher is cancelled there
+     */
+    private void close(ForkingStreamConsumer<T> consumer) {
+        try {
+            stream.close();
+        }
+        catch (Throwable throwable) {
+            consumer.fail(throwable);
+        }
+    }
+
+    /**
+     * the calling thread reads the first piece of the source, a virtual thread each of the others
+     */
+    private void produceParallel(ForkingStreamConsumer<T> consumer) {
+        List<Spliterator<T>> pieces  = split(stream.parallel().spliterator(), producers);
+        List<Thread>         threads = new ArrayList<>(pieces.size());
+
+        for (Spliterator<T> piece : pieces.subList(1, pieces.size())) {
+            Producer<T> producer = consumer.producer();
+            threads.add(Thread.ofVirtual().name("stream-fork-producer").start(() -> produce(consumer, piece, producer)));
+        }
+        produce(consumer, pieces.get(0), consumer.producer());
+
+        try {
+            for (Thread thread : threads) thread.join();
+        }
+        catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(exception);
+        }
+    }
 
-        Map<Object, Future<?>> actions = forks.entrySet().stream().reduce(new HashMap<>(16), (map, e) -> {
-            map.put(e.getKey(), getForkResult(queues, e.getValue()));
-            return map;
-        }, (m1, m2) -> {
-            m1.putAll(m2);
-            return m1;
+    /**
+     * a failing piece stops the other pieces through the consumer
+     */
+    private static <T> void produce(ForkingStreamConsumer<T> consumer, Spliterator<T> piece, Producer<T> producer) {
+        try {
+            consumer.drain(piece, producer);
+            producer.flush();
+        }
+        catch (Throwable throwable) {
+            consumer.fail(throwable);
+        }
+    }
+
+    private static <T> List<Spliterator<T>> split(Spliterator<T> source, int pieces) {
+        List<Spliterator<T>> split = new ArrayList<>(pieces);
+        split.add(source);
+
+        for (boolean splitting = true; splitting && split.size() < pieces; ) {
+            splitting = false;
+            for (int i = split.size() - 1; i >= 0 && split.size() < pieces; i--) {
+                Spliterator<T> prefix = split.get(i).trySplit();
+                if (prefix != null) {
+                    split.add(prefix);
+                    splitting = true;
+                }
+            }
+        }
+        return split;
+    }
+
+    /**
+     * the forks of a sequential source keep its order and, unless elements are dropped, its exact size, so toArray
+     * or toList in a fork allocate once
+     */
+    private ForkingStreamConsumer<T> build(Spliterator<T> source) {
+        if (ringSize > 0 && (backpressure != Backpressure.BLOCK || batchSize > 1 || producers > 1))
+            throw new IllegalStateException("ring buffer only supports Backpressure.BLOCK, no batch and a single producer");
+
+        Map<Object, Fork<T>> built = new LinkedHashMap<>(16);
+        collectors.forEach((key, collector) -> built.put(key, new Fork<>(key, collector)));
+
+        long size            = source == null || backpressure == Backpressure.DROP ? -1 : source.getExactSizeIfKnown();
+        int  characteristics = source == null ? 0 : source.characteristics() & FORKED_CHARACTERISTICS;
+
+        RingBuffer ring = ringSize > 0 ? new RingBuffer(ringSize, forks.size()) : null;
+        forks.forEach((key, fn) -> {
+            Fork<T> fork = ring == null
+                           ? getForkResult(key, fn, size, characteristics)
+                           : getRingForkResult(key, fn, ring, ring.reader(built.size() - collectors.size()), size, characteristics);
+            built.put(key, fork);
         });
 
-        return new ForkingStreamConsumer<>(queues, actions);
+        ForkingStreamConsumer<T> consumer = new ForkingStreamConsumer<>(built, ring == null ? batchSize : 1, ring, interrupter);
+        if (listener != null) consumer.report(listener, interval);
+        return consumer;
     }
 
-    private Future<?> getForkResult(List<BlockingQueue<T>> queues, Function<Stream<T>, ?> fn) {
-        BlockingQueue<T> queue = new LinkedBlockingQueue<>();
-        queues.add(queue);
-        Spliterator<T> spliterator = new BlockingQueueSpliterator<>(queue);
+    private Fork<T> getForkResult(Object key, Function<Stream<T>, ?> fn, long size, int characteristics) {
+        ForkStats                   stats       = new ForkStats();
+        BlockingQueue<Object>       queue       = capacity == UNBOUNDED ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(Math.max(1, capacity / batchSize));
+        BlockingQueueSpliterator<T> spliterator = new BlockingQueueSpliterator<>(queue, listener != null ? stats : null, size, characteristics);
+        Stream<T>                   source      = StreamSupport.stream(spliterator, false);
+
+        return new Fork<>(key, queue, spliterator, capacity, backpressure, CompletableFuture.supplyAsync(() -> (Object) fn.apply(source), executor), stats);
+    }
+
+    private Fork<T> getRingForkResult(Object key, Function<Stream<T>, ?> fn, RingBuffer ring, RingBuffer.Reader reader, long size, int characteristics) {
+        ForkStats      stats       = new ForkStats();
+        Spliterator<T> spliterator = ring.new ReaderSpliterator<T>(reader, listener != null ? stats : null, size, characteristics);
         Stream<T>      source      = StreamSupport.stream(spliterator, false);
 
-        return CompletableFuture.supplyAsync(() -> fn.apply(source));
+        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
+            // the fork was cancelled while the task waited for a thread
+            if (!ring.enter(reader)) throw new CancellationException();
+            try {
+                return fn.apply(source);
+            }
+            finally {
+                ring.leave(reader);
+            }
+        }, executor);
+        future.whenComplete((result, throwable) -> ring.abandon(reader));
+        reader.future = future;
+        return new Fork<>(key, reader, ringSize, future, stats);
+    }
+
+    /**
+     * what the producer does with an element when the queue of a fork is full
+     */
+    public enum Backpressure {
+        /**
+         * wait until the fork takes an element, the producer runs at the speed of the slowest fork
+         */
+        BLOCK,
+        /**
+         * skip the element for this fork only, the fork sees fewer elements than the source has
+         */
+        DROP,
+        /**
+         * stop the producer, done() throws an IllegalStateException
+         */
+        FAIL
     }
 
     /**
@@ -80,8 +427,226 @@ public class StreamForks<T> {
         /**
          * obtain the result of the fork operation
          *
+         * @throws RuntimeException the first failure of the source or of any fork, as it was thrown
          */
         <R> R get(Object key);
+
+        /**
+         * @throws TimeoutException if the fork has not finished in time, the fork keeps running
+         * @throws RuntimeException the first failure of the source or of any fork, as it was thrown
+         */
+        <R> R get(Object key, long timeout, TimeUnit unit) throws TimeoutException;
+
+        /**
+         * the result of the fork as a future of its own, completing when the fork is done. Completing or cancelling
+         * the returned future does not touch the fork
+         */
+        <R> CompletableFuture<R> future(Object key);
+
+        /**
+         * stop all forks: the producer stops reading the source, forks still running stop at their next element and
+         * get throws a CancellationException
+         */
+        void cancel();
+
+        /**
+         * elements currently waiting in the queue of the fork
+         */
+        int depth(Object key);
+
+        /**
+         * the highest queue depth the producer saw for the fork, counted like {@link #depth}
+         */
+        int peakDepth(Object key);
+
+        /**
+         * elements the fork did not get because of {@link Backpressure#DROP}
+         */
+        long dropped(Object key);
+    }
+
+    /**
+     * receives the metrics of running forks, see {@link StreamForks#metrics}
+     */
+    @FunctionalInterface
+    public interface MetricsListener {
+
+        void report(Metrics metrics);
+
+        /**
+         * a listener printing one line per fork, the fork with the most elements waiting is usually the bottleneck
+         */
+        static MetricsListener print(PrintStream out) {
+            return metrics -> {
+                out.printf("stream forks%s: produced %d, producer blocked %d ms%n", metrics.finished() ? " finished" : "",
+                           metrics.produced(), metrics.producerBlockedNanos() / 1_000_000);
+                for (ForkMetrics fork : metrics.forks()) {
+                    out.printf("  fork [%s]: consumed %d, depth %d, peak depth %d, dropped %d, blocked %d ms, blocking producer %d ms%n",
+                               fork.key(), fork.consumed(), fork.depth(), fork.peakDepth(), fork.dropped(),
+                               fork.blockedNanos() / 1_000_000, fork.producerBlockedNanos() / 1_000_000);
+                }
+            };
+        }
+    }
+
+    /**
+     * one report, the counters of a running pass are approximate, the last report is exact
+     *
+     * @param produced             elements read from the source
+     * @param producerBlockedNanos time the producer waited for room in the queues or the ring
+     * @param finished             the last report, sent when all forks are done
+     */
+    public record Metrics(long produced, long producerBlockedNanos, boolean finished, List<ForkMetrics> forks) {}
+
+    /**
+     * @param consumed             elements taken by the fork, collector forks take every element produced
+     * @param depth                elements waiting for the fork, its lag behind the producer with the ring buffer
+     * @param peakDepth            see {@link ForkResult#peakDepth}
+     * @param dropped              see {@link ForkResult#dropped}
+     * @param blockedNanos         time the fork waited for the next element
+     * @param producerBlockedNanos time the producer waited for room in the queue of this fork
+     */
+    public record ForkMetrics(Object key, long consumed, int depth, int peakDepth, long dropped, long blockedNanos, long producerBlockedNanos) {}
+
+    /**
+     * timings of one fork, blocked is written by the fork thread, only when there is a listener
+     */
+    static final class ForkStats {
+
+        final LongAdder producerBlockedNanos = new LongAdder();
+
+        volatile long blockedNanos;
+    }
+
+    /**
+     * a batch of elements, read by every fork and never changed after it was published
+     */
+    record Chunk(Object[] elements, int size) {}
+
+    /**
+     * one fork: its queue or its ring reader, or its collector, and the future of its result. The queue holds elements
+     * or, in batch mode, chunks. The counters are written by the producers, with several producers the depths are
+     * approximate
+     */
+    static final class Fork<T> {
+
+        private static final long OFFER_WAIT_MILLIS = 10;
+
+        final Object                      key;
+        final BlockingQueue<Object>       queue;
+        final BlockingQueueSpliterator<T> source;
+        final RingBuffer.Reader           reader;
+        final int                       capacity;
+        final Backpressure              backpressure;
+        final CompletableFuture<Object> future;
+        final Collector<T, ?, ?>        collector;
+        final ForkStats                 stats;
+
+        final LongAdder dropped = new LongAdder();
+
+        volatile boolean detached;
+        long             pushed;
+        int              peakDepth;
+
+        Fork(Object key, BlockingQueue<Object> queue, BlockingQueueSpliterator<T> source, int capacity, Backpressure backpressure,
+             CompletableFuture<Object> future, ForkStats stats) {
+            this.key          = key;
+            this.queue        = queue;
+            this.source       = source;
+            this.reader       = null;
+            this.capacity     = capacity;
+            this.backpressure = backpressure;
+            this.future       = future;
+            this.collector    = null;
+            this.stats        = stats;
+        }
+
+        Fork(Object key, RingBuffer.Reader reader, int capacity, CompletableFuture<Object> future, ForkStats stats) {
+            this.key          = key;
+            this.queue        = null;
+            this.source       = null;
+            this.reader       = reader;
+            this.capacity     = capacity;
+            this.backpressure = Backpressure.BLOCK;
+            this.future       = future;
+            this.collector    = null;
+            this.stats        = stats;
+        }
+
+        @SuppressWarnings("unchecked")
+        Fork(Object key, Collector<? super T, ?, ?> collector) {
+            this.key          = key;
+            this.queue        = null;
+            this.source       = null;
+            this.reader       = null;
+            this.capacity     = 0;
+            this.backpressure = null;
+            this.future       = new CompletableFuture<>();
+            this.collector    = (Collector<T, ?, ?>) collector;
+            this.stats        = new ForkStats();
+        }
+
+        /**
+         * @param size elements in the item, 1 for a single element
+         */
+        void push(Object item, int size) {
+            if (detached) return;
+            // a fork which short circuited or failed reads nothing more
+            if (future.isDone()) {
+                detached = true;
+                return;
+            }
+
+            if (!queue.offer(item)) {
+                switch (backpressure) {
+                    case BLOCK -> {
+                        put(item);
+                        if (detached) return;
+                    }
+                    case DROP -> {
+                        dropped.add(size);
+                        return;
+                    }
+                    case FAIL -> throw new IllegalStateException("queue of fork [" + key + "] is full, capacity: " + capacity);
+                }
+            }
+
+            // counted instead of asking the queue for its size, which takes the lock of the queue once more
+            pushed += size;
+            int depth = depth();
+            if (depth > peakDepth) peakDepth = depth;
+        }
+
+        /**
+         * the fork counts an element as taken just after the queue gave it out, so the difference can be one element
+         * or chunk over the capacity for a moment
+         */
+        int depth() {
+            return (int) Math.max(0, Math.min(capacity, pushed - source.taken()));
+        }
+
+        /**
+         * wait for room in the queue, a fork which has already returned or failed will never make room, so it is
+         * detached instead
+         */
+        void put(Object item) {
+            long start = System.nanoTime();
+            try {
+                while (!queue.offer(item, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (future.isDone()) {
+                        detached = true;
+                        return;
+                    }
+                }
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(exception);
+            }
+            finally {
+                stats.producerBlockedNanos.add(System.nanoTime() - start);
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -89,62 +654,464 @@ public class StreamForks<T> {
 
         static final Object END_OF_STREAM = new Object();
 
-        private final List<BlockingQueue<T>> queues;
-        private final Map<Object, Future<?>> actions;
+        private final    Map<Object, Fork<T>>       forks;
+        private final    Fork<T>[]                  fanOut;
+        private final    Fork<T>[]                  fused;
+        private final    int                        batchSize;
+        private final    RingBuffer                 ring;
+        // parallel producers are added by their threads while the metrics thread reads the list
+        private final    List<Producer<T>>          producers = new CopyOnWriteArrayList<>();
+        private final    Producer<T>                producer;
+        private final    AtomicReference<Throwable> failure   = new AtomicReference<>();
+        // completed once the producer is through, after the forks were told the source ended
+        private final    CompletableFuture<Void>    finished  = new CompletableFuture<>();
+        private final    Runnable                   interrupter;
+        private volatile boolean                    cancelled;
+
+        /**
+         * @param interrupter wakes up a producer waiting for a push based source once it has to stop, null if the
+         *                    source never blocks the producer
+         */
+        ForkingStreamConsumer(Map<Object, Fork<T>> forks, int batchSize, RingBuffer ring, Runnable interrupter) {
+            this.forks       = forks;
+            this.fanOut      = forks.values().stream().filter(fork -> fork.collector == null).toArray(Fork[]::new);
+            this.fused       = forks.values().stream().filter(fork -> fork.collector != null).toArray(Fork[]::new);
+            this.batchSize   = batchSize;
+            this.ring        = ring;
+            this.interrupter = interrupter;
+            this.producer    = producer();
+
+            for (Fork<T> fork : fanOut) {
+                fork.future.whenComplete((result, throwable) -> {
+                    if (throwable != null) fail(throwable);
+                    else if (interrupter != null && stopped()) interrupter.run();
+                });
+            }
+        }
+
+        /**
+         * the first failure stops the producer and fails every fork still running, later failures are attached to it
+         * as suppressed. Cancellations are not failures
+         */
+        void fail(Throwable throwable) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) throwable = throwable.getCause();
+            if (throwable instanceof CancellationException) return;
+
+            if (failure.compareAndSet(null, throwable)) {
+                stop(throwable);
+                return;
+            }
+
+            Throwable first = failure.get();
+            if (first != throwable) first.addSuppressed(throwable);
+        }
+
+        void rethrow() {
+            Throwable first = failure.get();
+            if (first != null) throw propagate(first);
+        }
+
+        Throwable failure() {
+            return failure.get();
+        }
+
+        /**
+         * reports from a virtual thread every interval until the producer and all forks are done, then reports a last
+         * time
+         */
+        void report(MetricsListener listener, Duration interval) {
+            CompletableFuture<Void> all = CompletableFuture.allOf(Stream.concat(forks.values().stream().map(fork -> fork.future), Stream.of(finished))
+                                                                        .toArray(CompletableFuture[]::new));
+
+            Thread.ofVirtual().name("stream-forks-metrics").start(() -> {
+                while (!all.isDone()) {
+                    try {
+                        all.get(interval.toNanos(), TimeUnit.NANOSECONDS);
+                    }
+                    catch (TimeoutException timeout) {
+                        listener.report(metrics(false));
+                    }
+                    catch (InterruptedException exception) {
+                        return;
+                    }
+                    catch (ExecutionException | CancellationException failed) {
+                        break;
+                    }
+                }
+                listener.report(metrics(true));
+            });
+        }
+
+        private Metrics metrics(boolean finished) {
+            long produced = 0;
+            for (Producer<T> each : producers) produced += each.produced.get();
+
+            long              producerBlocked = ring != null ? ring.blockedNanos() : 0;
+            List<ForkMetrics> metrics         = new ArrayList<>(forks.size());
+            for (Fork<T> fork : forks.values()) {
+                long blocked  = fork.stats.producerBlockedNanos.sum();
+                long consumed = fork.collector != null ? produced : ring != null ? ring.consumed(fork.reader) : fork.source.taken();
+                producerBlocked += blocked;
+                metrics.add(new ForkMetrics(fork.key, consumed, depth(fork.key), peakDepth(fork.key), dropped(fork.key), fork.stats.blockedNanos, blocked));
+            }
+            return new Metrics(produced, producerBlocked, finished, List.copyOf(metrics));
+        }
+
+        /**
+         * a producer of its own for every thread reading the source, created by the calling thread
+         */
+        Producer<T> producer() {
+            Producer<T> created = new Producer<>(fanOut, fused, batchSize, ring);
+            producers.add(created);
+            return created;
+        }
+
+        /**
+         * reads the piece element by element, so the producer stops as soon as nobody needs the rest of the source
+         */
+        void drain(Spliterator<T> piece, Producer<T> producer) {
+            do {
+                if (stopped()) return;
+            } while (piece.tryAdvance(producer));
+        }
+
+        /**
+         * cancelled, or every fork is done and no collector fork needs the rest
+         */
+        private boolean stopped() {
+            if (cancelled) return true;
+            if (fused.length > 0) return false;
 
-        public ForkingStreamConsumer(List<BlockingQueue<T>> queues, Map<Object, Future<?>> actions) {
-            this.queues  = queues;
-            this.actions = actions;
+            for (Fork<T> fork : fanOut) {
+                if (!fork.future.isDone()) return false;
+            }
+            return true;
         }
 
+        /**
+         * the end marker must reach every fork whatever the backpressure is, otherwise the fork never returns
+         */
         void finish() {
-            accept((T) END_OF_STREAM);
+            try {
+                if (failure.get() == null) complete();
+                if (ring != null) {
+                    ring.finish();
+                    return;
+                }
+                producer.flush();
+
+                for (Fork<T> fork : fanOut) {
+                    if (!fork.detached) fork.put(END_OF_STREAM);
+                }
+            }
+            finally {
+                finished.complete(null);
+            }
         }
 
         @Override
         public <R> R get(Object key) {
             try {
-                return ((Future<R>) actions.get(key)).get();
+                return (R) fork(key).future.get();
+            }
+            catch (ExecutionException exception) {
+                throw propagate(exception.getCause());
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(exception);
+            }
+        }
+
+        @Override
+        public <R> R get(Object key, long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return (R) fork(key).future.get(timeout, unit);
             }
-            catch (Exception exception) {
+            catch (ExecutionException exception) {
+                throw propagate(exception.getCause());
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
                 throw new RuntimeException(exception);
             }
         }
 
+        @Override
+        public <R> CompletableFuture<R> future(Object key) {
+            return (CompletableFuture<R>) fork(key).future.copy();
+        }
+
+        @Override
+        public void cancel() {
+            stop(null);
+        }
+
+        /**
+         * stops the producer and every fork still running. The queues are emptied and get the end marker, so forks
+         * waiting for an element return at once. A producer still pushing can fill a queue again before the marker
+         * gets in, the fork then sees the cancelled flag of its source within one poll
+         *
+         * @param cause the failure to complete the forks with, null to cancel them
+         */
+        private void stop(Throwable cause) {
+            cancelled = true;
+            if (interrupter != null) interrupter.run();
+            for (Fork<T> fork : forks.values()) {
+                if (cause == null) fork.future.cancel(false);
+                else fork.future.completeExceptionally(cause);
+
+                if (fork.queue != null) {
+                    fork.source.cancel();
+                    fork.queue.clear();
+                    fork.queue.offer(END_OF_STREAM);
+                }
+                if (fork.reader != null) fork.reader.cancelled = true;
+            }
+        }
+
+        @Override
+        public int depth(Object key) {
+            Fork<T> fork = fork(key);
+            if (fork.collector != null) return 0;
+            return ring != null ? ring.lag(fork.reader) : fork.depth();
+        }
+
+        @Override
+        public int peakDepth(Object key) {
+            Fork<T> fork = fork(key);
+            if (fork.collector != null) return 0;
+            return ring != null ? fork.reader.peakLag : fork.peakDepth;
+        }
+
+        @Override
+        public long dropped(Object key) {
+            return fork(key).dropped.sum();
+        }
+
         @Override
         public void accept(T t) {
-            queues.forEach(q -> q.add(t));
+            producer.accept(t);
+        }
+
+        /**
+         * combines the containers of all producers and finishes every collector fork
+         */
+        @SuppressWarnings("rawtypes")
+        private void complete() {
+            for (int i = 0; i < fused.length; i++) {
+                Collector collector = fused[i].collector;
+                try {
+                    Object container = producers.get(0).containers[i];
+                    for (int p = 1; p < producers.size(); p++) {
+                        container = collector.combiner().apply(container, producers.get(p).containers[i]);
+                    }
+                    fused[i].future.complete(collector.finisher().apply(container));
+                }
+                catch (Throwable throwable) {
+                    fail(throwable);
+                }
+            }
+        }
+
+        private static RuntimeException propagate(Throwable throwable) {
+            if (throwable instanceof RuntimeException runtime) return runtime;
+            if (throwable instanceof Error error) throw error;
+            return new RuntimeException(throwable);
+        }
+
+        private Fork<T> fork(Object key) {
+            Fork<T> fork = forks.get(key);
+            if (fork == null) throw new IllegalArgumentException("no fork with key: " + key);
+            return fork;
         }
     }
 
+    /**
+     * accumulates the elements read by one thread into the collector forks and publishes them to the other forks. The
+     * containers and the batch being filled belong to that thread only
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static final class Producer<T> implements Consumer<T> {
+
+        private final Fork<T>[]    fanOut;
+        private final BiConsumer[] accumulators;
+        private final Object[]     containers;
+        private final int          batchSize;
+        private final RingBuffer   ring;
+        // only written by the producer thread, read by the metrics thread
+        private final AtomicLong   produced = new AtomicLong();
+        private       Object[]     batch;
+        private       int          batched;
+
+        Producer(Fork<T>[] fanOut, Fork<T>[] fused, int batchSize, RingBuffer ring) {
+            this.fanOut       = fanOut;
+            this.accumulators = new BiConsumer[fused.length];
+            this.containers   = new Object[fused.length];
+            this.batchSize    = batchSize;
+            this.ring         = ring;
+            this.batch        = batchSize > 1 && fanOut.length > 0 ? new Object[batchSize] : null;
+
+            for (int i = 0; i < fused.length; i++) {
+                accumulators[i] = fused[i].collector.accumulator();
+                containers[i]   = fused[i].collector.supplier().get();
+            }
+        }
+
+        @Override
+        public void accept(T t) {
+            produced.lazySet(produced.get() + 1);
+            for (int i = 0; i < accumulators.length; i++) accumulators[i].accept(containers[i], t);
+
+            if (ring != null) {
+                ring.publish(t);
+                return;
+            }
+            if (batch == null) {
+                for (Fork<T> fork : fanOut) fork.push(t, 1);
+                return;
+            }
+
+            batch[batched++] = t;
+            if (batched == batchSize) publish();
+        }
+
+        void flush() {
+            if (batched > 0) publish();
+        }
+
+        /**
+         * the forks keep reading the published chunk, so the next one is a new array
+         */
+        private void publish() {
+            Chunk chunk = new Chunk(batch, batched);
+            batch   = new Object[batchSize];
+            batched = 0;
+            for (Fork<T> fork : fanOut) fork.push(chunk, chunk.size());
+        }
+    }
+
+    /**
+     * reads the queue of a fork until the end marker, chunks are unpacked here
+     */
+    @SuppressWarnings("unchecked")
     public static class BlockingQueueSpliterator<T> implements Spliterator<T> {
 
-        private final BlockingQueue<T> queue;
+        private static final long POLL_WAIT_MILLIS = 10;
+
+        private final    BlockingQueue<Object> queue;
+        private final    ForkStats             stats;
+        private final    int                   characteristics;
+        private          long                  remaining;
+        private          Chunk                 chunk;
+        private          int                   index;
+        // elements taken so far, only written by the fork thread
+        private final    AtomicLong            taken = new AtomicLong();
+        private volatile boolean               cancelled;
 
-        public BlockingQueueSpliterator(BlockingQueue<T> queue) {
-            this.queue = queue;
+        public BlockingQueueSpliterator(BlockingQueue<Object> queue) {
+            this(queue, null, -1, 0);
+        }
+
+        /**
+         * @param stats           counts taken elements and the time spent waiting for them, null to count nothing
+         * @param size            exact number of elements the queue will get, -1 if unknown
+         * @param characteristics of the source, SIZED is added when the size is known
+         */
+        BlockingQueueSpliterator(BlockingQueue<Object> queue, ForkStats stats, long size, int characteristics) {
+            this.queue           = queue;
+            this.stats           = stats;
+            this.remaining       = size;
+            this.characteristics = size < 0 ? characteristics : characteristics | SIZED | SUBSIZED;
         }
 
         @Override
         public boolean tryAdvance(Consumer<? super T> action) {
-            T t;
+            if (chunk != null) {
+                if (remaining > 0) remaining--;
+                action.accept((T) chunk.elements()[index++]);
+                if (index == chunk.size()) chunk = null;
+                return true;
+            }
 
-            while (true) {
-                try {
-                    t = queue.take();
-                    break;
+            Object item = take();
+            if (item == ForkingStreamConsumer.END_OF_STREAM) return false;
+
+            if (item instanceof Chunk next) {
+                chunk = next;
+                index = 0;
+                return tryAdvance(action);
+            }
+
+            if (remaining > 0) remaining--;
+            action.accept((T) item);
+            return true;
+        }
+
+        /**
+         * drains a whole chunk per take, without going through tryAdvance for every element
+         */
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (chunk != null) {
+                Chunk rest = chunk;
+                chunk = null;
+                for (int i = index; i < rest.size(); i++) action.accept((T) rest.elements()[i]);
+            }
+
+            for (Object item = take(); item != ForkingStreamConsumer.END_OF_STREAM; item = take()) {
+                if (item instanceof Chunk next) {
+                    Object[] elements = next.elements();
+                    for (int i = 0, size = next.size(); i < size; i++) action.accept((T) elements[i]);
                 }
-                catch (InterruptedException exception) {
-                    throw new RuntimeException(exception);
+                else {
+                    action.accept((T) item);
                 }
             }
+            if (remaining > 0) remaining = 0;
+        }
 
-            if (t != ForkingStreamConsumer.END_OF_STREAM) {
-                action.accept(t);
-                return true;
+        long taken() {
+            return taken.get();
+        }
+
+        /**
+         * the end marker once cancelled, whatever is left in the queue
+         */
+        void cancel() {
+            cancelled = true;
+        }
+
+        private Object take() {
+            if (cancelled) return ForkingStreamConsumer.END_OF_STREAM;
+
+            Object item = queue.poll();
+            if (item == null && stats == null) item = await();
+            else if (item == null) {
+                // only the time spent on an empty queue counts as blocked
+                long start = System.nanoTime();
+                item = await();
+                stats.blockedNanos += System.nanoTime() - start;
             }
+            // a single writer, so an ordered store is enough and no atomic add is needed
+            if (item != ForkingStreamConsumer.END_OF_STREAM) taken.lazySet(taken.get() + (item instanceof Chunk next ? next.size() : 1));
+            return item;
+        }
 
-            return false;
+        /**
+         * polls instead of a plain take, a cancelled fork may never get the end marker
+         */
+        private Object await() {
+            try {
+                for (; ; ) {
+                    Object item = queue.poll(POLL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                    if (item != null) return item;
+                    if (cancelled) return ForkingStreamConsumer.END_OF_STREAM;
+                }
+            }
+            catch (InterruptedException exception) {
+                throw new RuntimeException(exception);
+            }
         }
 
         @Override
@@ -154,12 +1121,165 @@ public class StreamForks<T> {
 
         @Override
         public long estimateSize() {
-            return 0;
+            return remaining < 0 ? Long.MAX_VALUE : remaining;
         }
 
         @Override
         public int characteristics() {
-            return 0;
+            return characteristics;
+        }
+    }
+
+    /**
+     * a publisher as the source of a stream: elements are buffered as they are pushed and taken by the producer. Demand
+     * is replenished in halves of the prefetch, so the buffer never holds more than prefetch elements
+     */
+    @SuppressWarnings("unchecked")
+    public static class SubscriberSpliterator<T> implements Flow.Subscriber<T>, Spliterator<T> {
+
+        private static final Object COMPLETE = new Object(), TERMINATED = new Object();
+
+        private final    int                     prefetch;
+        private final    int                     replenish;
+        private final    BlockingQueue<Object>   buffer;
+        private final    CountDownLatch          subscribed = new CountDownLatch(1);
+        // elements requested and not pushed yet
+        private final    AtomicLong              demand     = new AtomicLong();
+        // COMPLETE or a Failure, the first one wins
+        private final    AtomicReference<Object> terminal   = new AtomicReference<>();
+        private volatile Flow.Subscription       subscription;
+        private          boolean                 started;
+        private          boolean                 completed;
+        private          int                     consumed;
+
+        public SubscriberSpliterator(int prefetch) {
+            this.prefetch  = prefetch;
+            this.replenish = Math.max(1, prefetch / 2);
+            // the demand keeps the elements within prefetch, the one more slot is for the TERMINATED marker
+            this.buffer    = new ArrayBlockingQueue<>(prefetch + 1);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscribed.countDown();
+            // cancelled before the publisher called back
+            if (terminal.get() != null) subscription.cancel();
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (terminal.get() != null) return;
+
+            // rule 1.1 of reactive streams: never more elements than requested
+            if (demand.getAndDecrement() <= 0) {
+                subscription.cancel();
+                terminate(new Failure(new IllegalStateException("publisher pushed more elements than requested, rule 1.1 violated")));
+                return;
+            }
+            buffer.offer(Objects.requireNonNull(item, "item"));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            terminate(new Failure(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            terminate(COMPLETE);
+        }
+
+        /**
+         * only the first terminal signal is kept, the marker behind the last element wakes up the producer
+         */
+        private void terminate(Object signal) {
+            if (terminal.compareAndSet(null, signal)) buffer.offer(TERMINATED);
+        }
+
+        /**
+         * cancels the subscription and ends the stream behind the elements already buffered, so a producer waiting
+         * for an idle publisher returns
+         */
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) current.cancel();
+            terminate(COMPLETE);
+            subscribed.countDown();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (completed) return false;
+            if (!started) start();
+
+            Object item = take();
+            if (item == TERMINATED) {
+                completed = true;
+                if (terminal.get() instanceof Failure failure) throw failure.propagate();
+                return false;
+            }
+
+            if (++consumed == replenish) {
+                consumed = 0;
+                demand.addAndGet(replenish);
+                subscription.request(replenish);
+            }
+            action.accept((T) item);
+            return true;
+        }
+
+        private void start() {
+            try {
+                subscribed.await();
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(exception);
+            }
+            started = true;
+            if (subscription == null) return;
+
+            demand.addAndGet(prefetch);
+            subscription.request(prefetch);
+        }
+
+        private Object take() {
+            try {
+                return buffer.take();
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(exception);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+
+        record Failure(Throwable throwable) {
+
+            RuntimeException propagate() {
+                if (throwable instanceof RuntimeException runtime) return runtime;
+                if (throwable instanceof Error error) throw error;
+                return new RuntimeException(throwable);
+            }
         }
     }
 }
@@ -0,0 +1,99 @@
+package lambda;
+
+import lombok.Data;
+import org.fz.erwin.lambda.BeanCopier;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * copies between beans whose properties differ in boxing, once through the generated copier and once through the
+ * reflective fallback for beans of another class loader
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/16 14:30
+ */
+public class BeanCopierTest {
+
+    @Data
+    public static class Source {
+        private int     age;
+        private Integer score;
+        private Long    id;
+        private double  ratio;
+        private String  name;
+    }
+
+    @Data
+    public static class Target {
+        private Integer age;
+        private int     score = -1;
+        private long    id;
+        private Double  ratio;
+        private Object  name;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Source source = new Source();
+        source.setAge(30);
+        source.setId(7L);
+        source.setRatio(0.5);
+        source.setName("Alice");
+
+        // without convert only the assignable name is copied
+        Target plain = new Target();
+        BeanCopier.of(Source.class, Target.class).copy(source, plain);
+        check("Alice".equals(plain.getName()) && plain.getAge() == null && plain.getId() == 0, "plain copy: " + plain);
+
+        BeanCopier<Source, Target> copier = BeanCopier.of(Source.class, Target.class, true);
+        check(!copier.getClass().getName().contains("$$Lambda"), "beans of the same loader fell back: " + copier.getClass());
+        Target target = new Target();
+        copier.copy(source, target);
+        // the null score leaves the primitive untouched
+        check(target.getAge() == 30 && target.getScore() == -1 && target.getId() == 7 && target.getRatio() == 0.5, "generated copy: " + target);
+
+        source.setScore(90);
+        copier.copy(source, target);
+        check(target.getScore() == 90, "generated unboxing: " + target);
+        System.out.println("generated " + target);
+
+        copyFromOtherLoader();
+    }
+
+    /**
+     * the same classes loaded again by a child loader, the hidden class can not link against them
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void copyFromOtherLoader() throws Exception {
+        URL classes = BeanCopierTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, ClassLoader.getPlatformClassLoader())) {
+            Class<?> sourceType = loader.loadClass(Source.class.getName());
+            Class<?> targetType = loader.loadClass(Target.class.getName());
+            check(sourceType != Source.class, "source was not loaded again");
+
+            Object source = sourceType.getConstructor().newInstance();
+            sourceType.getMethod("setAge", int.class).invoke(source, 41);
+            sourceType.getMethod("setScore", Integer.class).invoke(source, 80);
+            sourceType.getMethod("setName", String.class).invoke(source, "Bob");
+            Object target = targetType.getConstructor().newInstance();
+
+            BeanCopier copier = BeanCopier.of(sourceType, targetType, true);
+            check(copier.getClass().getName().contains("$$Lambda"), "beans of another loader did not fall back: " + copier.getClass());
+            copier.copy(source, target);
+
+            Object age   = targetType.getMethod("getAge").invoke(target);
+            Object score = targetType.getMethod("getScore").invoke(target);
+            Object id    = targetType.getMethod("getId").invoke(target);
+            Object name  = targetType.getMethod("getName").invoke(target);
+            // the null id is skipped instead of failing the unboxing
+            check(Integer.valueOf(41).equals(age) && Integer.valueOf(80).equals(score) && Long.valueOf(0).equals(id) && "Bob".equals(name),
+                  "reflective copy: " + target);
+            System.out.println("reflective " + target);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
@@ -0,0 +1,71 @@
+package lambda;
+
+import org.fz.erwin.lambda.BeanMeta;
+import org.fz.erwin.lambda.LambdaMetas;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/2 16:20
+ */
+public class BeanMetaTest {
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        BeanMeta<Person> meta = BeanMeta.of(Person.class);
+        meta.properties().forEach(p -> System.out.println(p.ordinal() + " " + p.name() + " " + p.type()));
+
+        int    name   = meta.ordinal("name");
+        int    age    = meta.ordinal("age");
+        Person person = meta.newInstance();
+        meta.set(person, name, "Alice");
+        meta.set(person, age, 30);
+
+        System.out.println(person);
+        System.out.println(meta.get(person, name) + " " + meta.get(person, age));
+        System.out.println(BeanMeta.of(Person.class) == meta);
+
+        BeanMeta<Point> points = BeanMeta.of(Point.class);
+        System.out.println(points.newInstance() + " " + points.newInstance(3, 4) + " " + points.get(points.newInstance(3, 4), points.ordinal("y")));
+
+        // neither the class nor the record is public
+        BeanMeta<Counter> counters = BeanMeta.of(Counter.class);
+        Counter           counter  = counters.newInstance();
+        counters.set(counter, counters.ordinal("count"), 7);
+        check(Integer.valueOf(7).equals(counters.get(counter, counters.ordinal("count"))), "package private class: " + counter.getCount());
+
+        BeanMeta<Range> ranges = BeanMeta.of(Range.class);
+        check(Integer.valueOf(9).equals(ranges.get(ranges.newInstance(1, 9), ranges.ordinal("to"))), "package private record");
+        check(Integer.valueOf(1).equals(LambdaMetas.recordAccessors(Range.class).get(0).apply(new Range(1, 9))), "package private record accessor");
+
+        // the same class loaded again by a child loader, erwin can not link against it
+        URL classes = BeanMetaTest.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes}, ClassLoader.getPlatformClassLoader())) {
+            Class<Object>    childType = (Class<Object>) loader.loadClass(Person.class.getName());
+            BeanMeta<Object> child     = BeanMeta.of(childType);
+            Object           bob       = child.newInstance();
+            child.set(bob, child.ordinal("name"), "Bob");
+            check(childType.getClassLoader() == loader && "Bob".equals(child.get(bob, child.ordinal("name"))), "child loader: " + bob);
+            System.out.println(counter.getCount() + " " + ranges.newInstance(1, 9) + " " + bob);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+
+    public record Point(int x, int y) {}
+
+    record Range(int from, int to) {}
+}
+
+class Counter {
+    private int count;
+
+    public int getCount() { return count; }
+
+    public void setCount(int count) { this.count = count; }
+}
@@ -0,0 +1,102 @@
+package lambda;
+
+import org.fz.erwin.lambda.MethodInvoker;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * calls static, instance, private, varargs and primitive methods through generated invokers
+ *
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/16 15:10
+ */
+public class MethodInvokerTest {
+
+    private final int base;
+
+    public MethodInvokerTest(int base) {
+        this.base = base;
+    }
+
+    public static String join(String left, String right) {
+        return left + right;
+    }
+
+    public int plus(int value) {
+        return base + value;
+    }
+
+    public boolean positive() {
+        return base > 0;
+    }
+
+    private long twice(long value) {
+        return value * 2;
+    }
+
+    public static String format(String pattern, Object... args) {
+        return String.format(pattern, args);
+    }
+
+    public static int sum(int a0, int a1, int a2, int a3, int a4, int a5, int a6, int a7, int a8) {
+        return a0 + a1 + a2 + a3 + a4 + a5 + a6 + a7 + a8;
+    }
+
+    public void fail() throws IOException {
+        throw new IOException("checked");
+    }
+
+    public static void main(String[] args) throws Exception {
+        MethodInvokerTest target = new MethodInvokerTest(40);
+
+        MethodInvoker join = MethodInvoker.of(MethodInvokerTest.class.getMethod("join", String.class, String.class));
+        check("ab".equals(join.invoke(null, "a", "b")) && "ab".equals(join.invokeArgs(null, "a", "b")), "static join");
+
+        // primitive arguments and results are boxed
+        MethodInvoker plus = MethodInvoker.of(MethodInvokerTest.class.getMethod("plus", int.class));
+        check(Integer.valueOf(42).equals(plus.invoke(target, 2)), "instance plus: " + plus.invoke(target, 2));
+        check(Boolean.TRUE.equals(MethodInvoker.of(MethodInvokerTest.class.getMethod("positive")).invoke(target)), "boolean positive");
+
+        MethodInvoker twice = MethodInvoker.of(MethodInvokerTest.class.getDeclaredMethod("twice", long.class));
+        check(Long.valueOf(42).equals(twice.invoke(target, 21L)), "private twice");
+
+        // varargs are not spread, the array is one argument
+        MethodInvoker format = MethodInvoker.of(MethodInvokerTest.class.getMethod("format", String.class, Object[].class));
+        check(format.arity() == 2, "format arity " + format.arity());
+        check("1-2".equals(format.invoke(null, "%s-%s", new Object[]{1, 2})), "varargs format");
+
+        // more than 8 parameters only through invokeArgs
+        MethodInvoker sum = MethodInvoker.of(MethodInvokerTest.class.getMethod("sum", int.class, int.class, int.class, int.class, int.class,
+                                                                               int.class, int.class, int.class, int.class));
+        check(Integer.valueOf(45).equals(sum.invokeArgs(null, 1, 2, 3, 4, 5, 6, 7, 8, 9)), "sum of 9");
+        expect(IllegalArgumentException.class, () -> sum.invoke(null, 1), "sum with one argument");
+        expect(IllegalArgumentException.class, () -> join.invokeArgs(null, "a"), "join with one argument");
+
+        expect(ClassCastException.class, () -> plus.invoke(target, "2"), "plus with a string");
+        MethodInvoker fail = MethodInvoker.of(MethodInvokerTest.class.getMethod("fail"));
+        expect(IOException.class, () -> fail.invoke(target), "checked exception");
+
+        System.out.println(Arrays.asList(join.invoke(null, "a", "b"), plus.invoke(target, 2), twice.invoke(target, 21L),
+                                         format.invoke(null, "%s-%s", new Object[]{1, 2}), sum.invokeArgs(null, 1, 2, 3, 4, 5, 6, 7, 8, 9)));
+    }
+
+    /**
+     * exceptions of the method come through unwrapped, checked ones included
+     */
+    private static void expect(Class<? extends Throwable> expected, Runnable call, String what) {
+        try {
+            call.run();
+        }
+        catch (Throwable throwable) {
+            if (expected.isInstance(throwable)) return;
+            throw new IllegalStateException(what + " threw " + throwable, throwable);
+        }
+        throw new IllegalStateException(what + " did not throw " + expected.getSimpleName());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new IllegalStateException(message);
+    }
+}
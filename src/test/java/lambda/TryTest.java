@@ -0,0 +1,67 @@
+package lambda;
+
+import dev.failsafe.TimeoutExceededException;
+import org.fz.erwin.lambda.Try;
+import org.fz.erwin.lambda.Try.Result;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/14 10:20
+ */
+public class TryTest {
+
+    public static void main(String[] args) {
+        List<String> lines = List.of("1", "2", "x", "4", "", "6");
+
+        Map<Boolean, List<Result<Integer>>> parsed = lines.stream()
+                                                          .map(Try.lift(TryTest::parse))
+                                                          .collect(Collectors.partitioningBy(Result::isSuccess));
+        System.out.println("parsed " + parsed.get(true).stream().map(Result::get).toList() + ", failed " + parsed.get(false).size());
+
+        int sum = lines.stream().map(Try.lift(TryTest::parse)).flatMap(Result::stream).mapToInt(Integer::intValue).sum();
+        System.out.println("sum " + sum);
+
+        Integer recovered = Try.of(() -> parse("x")).map(value -> value * 2).recover(e -> -1).get();
+        System.out.println("recovered " + recovered);
+
+        for (Try.WrapMode mode : Try.WrapMode.values()) {
+            Try.wrapMode(mode);
+            try {
+                Stream.of("x").map(Try.apply(TryTest::parse)).toList();
+            }
+            catch (Exception e) {
+                System.out.println(mode + ": " + e.getClass().getSimpleName() + " " + e.getMessage() + ", stack " + e.getStackTrace().length);
+            }
+        }
+        Try.wrapMode(Try.WrapMode.FULL);
+
+        AtomicInteger attempts = new AtomicInteger();
+        Integer       retried  = Try.retry(Try.<Integer>backoff(3, Duration.ofMillis(10), Duration.ofMillis(100)),
+                                           () -> parse(attempts.incrementAndGet() < 3 ? "x" : "42")).get();
+        System.out.println("retried " + retried + " after " + attempts + " attempts");
+
+        try {
+            Try.withTimeout(Duration.ofMillis(50), () -> {
+                Thread.sleep(1000);
+                return 0;
+            }).get();
+        }
+        catch (TimeoutExceededException e) {
+            System.out.println("timed out after " + e.getTimeout().getConfig().getTimeout());
+        }
+    }
+
+    private static int parse(String text) throws ParseException {
+        if (text.isEmpty() || !Character.isDigit(text.charAt(0))) throw new ParseException("not a number: [" + text + "]", 0);
+        return Integer.parseInt(text);
+    }
+}
@@ -0,0 +1,236 @@
+package stream;
+
+import org.fz.erwin.stream.IntStreamForks;
+import org.fz.erwin.stream.StreamForks;
+import org.fz.erwin.stream.StreamForks.Backpressure;
+import org.fz.erwin.stream.StreamForks.ForkResult;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * @author fengbinbin
+ * @version 1.0
+ * @since 2025/11/9 10:20
+ */
+public class StreamForksTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        List<Long> source = LongStream.range(0, 1_000_000).boxed().toList();
+
+        ForkResult result = StreamForks.of(source)
+                                       .capacity(1024, Backpressure.BLOCK)
+                                       .fork("count", Stream::count)
+                                       .fork("sum", s -> s.mapToLong(Long::longValue).sum())
+                                       .fork("max", s -> s.max(Comparator.naturalOrder()).orElse(null))
+                                       .done();
+
+        System.out.println((Object) result.get("count") + " " + result.get("sum") + " " + result.get("max"));
+        System.out.println("peak depth of sum: " + result.peakDepth("sum"));
+
+        ForkResult batched = StreamForks.of(source)
+                                        .batch(256)
+                                        .fork("count", Stream::count)
+                                        .fork("list", Stream::toList)
+                                        .done();
+        System.out.println((Object) batched.get("count") + " " + batched.<List<Long>>get("list").equals(source));
+
+        ForkResult parallel = StreamForks.of(source)
+                                         .batch(256)
+                                         .parallel(4)
+                                         .fork("count", Stream::count)
+                                         .fork("sum", s -> s.mapToLong(Long::longValue).sum())
+                                         .done();
+        System.out.println((Object) parallel.get("count") + " " + parallel.get("sum"));
+
+        ForkResult collected = StreamForks.of(source)
+                                          .parallel(4)
+                                          .fork("count", Collectors.counting())
+                                          .fork("sum", Collectors.summingLong(Long::longValue))
+                                          .fork("odd", Collectors.partitioningBy(e -> e % 2 == 1, Collectors.counting()))
+                                          .fork("list", Stream::toList)
+                                          .done();
+        System.out.println((Object) collected.get("count") + " " + collected.get("sum") + " " + collected.get("odd")
+                           + " " + collected.<List<Long>>get("list").size());
+
+        ForkResult ring = StreamForks.of(source)
+                                     .ringBuffer(4096)
+                                     .virtualThreads()
+                                     .fork("count", Stream::count)
+                                     .fork("first", s -> s.findFirst().orElse(null))
+                                     .fork("list", Stream::toList)
+                                     .done();
+        System.out.println((Object) ring.get("count") + " " + ring.get("first") + " " + ring.<List<Long>>get("list").equals(source));
+
+        // the source is endless, done() returns because both forks short circuit
+        ForkResult first = new StreamForks<>(LongStream.iterate(0, i -> i + 1).boxed())
+                .fork("first", s -> s.filter(e -> e > 1000).findFirst().orElse(null))
+                .fork("any", s -> s.anyMatch(e -> e == 42))
+                .done();
+        System.out.println((Object) first.get("first") + " " + first.get("any"));
+
+        StreamForks.of(source)
+                   .batch(256)
+                   .fork("count", Stream::count)
+                   .fork("sum", Collectors.summingLong(Long::longValue))
+                   .doneAsync()
+                   .thenCompose(async -> async.<Long>future("count").thenCombine(async.<Long>future("sum"), (count, sum) -> sum / count))
+                   .thenAccept(average -> System.out.println("average " + average))
+                   .join();
+
+        try (SubmissionPublisher<Long> publisher = new SubmissionPublisher<>()) {
+            CompletableFuture<ForkResult> pushed = StreamForks.from(publisher)
+                                                              .fork("count", Collectors.counting())
+                                                              .fork("max", s -> s.max(Comparator.naturalOrder()).orElse(null))
+                                                              .doneAsync();
+            source.forEach(publisher::submit);
+            publisher.close();
+            System.out.println("pushed " + pushed.join().get("count") + " " + pushed.join().get("max"));
+        }
+
+        // a publisher ignoring the demand fails the forks instead of hanging them
+        Flow.Publisher<Long> greedy = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                for (long i = 0; i <= n; i++) subscriber.onNext(i);
+                subscriber.onComplete();
+            }
+
+            @Override
+            public void cancel() {}
+        });
+        try {
+            StreamForks.from(greedy, 8).fork("all", Stream::toList).done();
+        }
+        catch (IllegalStateException expected) {
+            System.out.println("greedy publisher: " + expected.getMessage());
+        }
+
+        ForkResult readings = IntStreamForks.of(IntStream.range(0, 1_000_000).toArray())
+                                            .capacity(64 * 1024, Backpressure.BLOCK)
+                                            .fork("max", IntStream::max)
+                                            .fork("sum", s -> s.asLongStream().sum())
+                                            .fork("even", s -> s.filter(v -> v % 2 == 0).count())
+                                            .done();
+        System.out.println(readings.get("max") + " " + readings.get("sum") + " " + readings.get("even"));
+
+        // primitive forks report values like boxed ones, not chunks
+        CompletableFuture<StreamForks.Metrics> counted = new CompletableFuture<>();
+        IntStreamForks.of(IntStream.range(0, 100_000).toArray())
+                      .metrics(metrics -> {
+                          if (metrics.finished()) counted.complete(metrics);
+                      }, Duration.ofSeconds(1))
+                      .fork("count", IntStream::count)
+                      .done();
+        StreamForks.Metrics values = counted.join();
+        if (values.produced() != 100_000 || values.forks().get(0).consumed() != 100_000)
+            throw new IllegalStateException("primitive metrics not in values: " + values);
+        System.out.println("primitive metrics: produced " + values.produced() + ", consumed " + values.forks().get(0).consumed());
+
+        ForkResult dropped = StreamForks.of(source)
+                                        .capacity(16, Backpressure.DROP)
+                                        .fork("slow", s -> s.peek(e -> Thread.onSpinWait()).count())
+                                        .done();
+        System.out.println("slow fork got " + dropped.get("slow") + ", dropped " + dropped.dropped("slow"));
+
+        CompletableFuture<StreamForks.Metrics> finished = new CompletableFuture<>();
+        StreamForks.MetricsListener            printer  = StreamForks.MetricsListener.print(System.out);
+        StreamForks.of(source)
+                   .capacity(1024, Backpressure.BLOCK)
+                   .batch(64)
+                   .metrics(metrics -> {
+                       printer.report(metrics);
+                       if (metrics.finished()) finished.complete(metrics);
+                   }, Duration.ofMillis(100))
+                   .fork("fast", s -> s.mapToLong(Long::longValue).sum())
+                   .fork("slow", s -> s.peek(e -> Thread.onSpinWait()).toList())
+                   .done();
+        finished.join();
+
+        // a sized source gives sized forks, toArray fills one array and count does not even read the queue
+        ForkResult sized = StreamForks.of(source)
+                                      .fork("array", s -> s.toArray(Long[]::new))
+                                      .fork("count", Stream::count)
+                                      .done();
+        System.out.println(sized.<Long[]>get("array").length + " " + sized.get("count"));
+
+        // cancelled while the producer waits on full queues, every fork thread must still return
+        List<Thread> forkThreads = new CopyOnWriteArrayList<>();
+        Executor     tracked     = task -> forkThreads.add(Thread.ofVirtual().name("tracked-fork").start(task));
+        for (int i = 0; i < 50; i++) {
+            CompletableFuture<ForkResult> cancelled = new StreamForks<>(Stream.generate(() -> 1L))
+                                                              .capacity(1, Backpressure.BLOCK)
+                                                              .executor(tracked)
+                                                              .fork("slow", s -> s.peek(e -> LockSupport.parkNanos(100_000)).toList())
+                                                              .fork("fast", Stream::toList)
+                                                              .doneAsync();
+            LockSupport.parkNanos(1_000_000);
+            cancelled.cancel(true);
+        }
+        awaitForkThreads(forkThreads, "cancel");
+
+        // a failing source or sibling stops the other forks the same way
+        forkThreads.clear();
+        for (int i = 0; i < 50; i++) {
+            int failAt = i;
+            try {
+                new StreamForks<>(Stream.iterate(0L, e -> e + 1).peek(e -> {
+                    if (e == 1000 + failAt) throw new IllegalStateException("source failed at " + e);
+                }))
+                        .capacity(1, Backpressure.BLOCK)
+                        .executor(tracked)
+                        .fork("slow", s -> s.peek(e -> LockSupport.parkNanos(100_000)).toList())
+                        .fork("failing", s -> s.peek(e -> {
+                            if (e == 500 + failAt * 20) throw new IllegalArgumentException("fork failed at " + e);
+                        }).toList())
+                        .done();
+            }
+            catch (IllegalStateException | IllegalArgumentException expected) {
+                // either failure may come first
+            }
+        }
+        awaitForkThreads(forkThreads, "failure");
+
+        // a publisher which never sends anything, cancelling must still cancel the subscription and free the producer
+        forkThreads.clear();
+        CountDownLatch       unsubscribed = new CountDownLatch(1);
+        Flow.Publisher<Long> idle         = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {
+                unsubscribed.countDown();
+            }
+        });
+        CompletableFuture<ForkResult> waiting = StreamForks.from(idle)
+                                                           .executor(tracked)
+                                                           .fork("all", Stream::toList)
+                                                           .doneAsync(tracked);
+        LockSupport.parkNanos(10_000_000);
+        waiting.cancel(true);
+        if (!unsubscribed.await(2, TimeUnit.SECONDS)) throw new IllegalStateException("idle publisher still subscribed after cancel");
+        awaitForkThreads(forkThreads, "idle publisher");
+    }
+
+    private static void awaitForkThreads(List<Thread> threads, String name) throws InterruptedException {
+        for (Thread thread : threads) thread.join(Duration.ofSeconds(5));
+
+        long alive = threads.stream().filter(Thread::isAlive).count();
+        if (alive > 0) throw new IllegalStateException(alive + " fork threads still running after " + name);
+        System.out.println(name + ": all " + threads.size() + " fork threads returned");
+    }
+}